@@ -0,0 +1,348 @@
+package ru.practicum.shareit.embedded;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.ValueConstants;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import ru.practicum.shareit.client.LocalServer;
+import ru.practicum.shareit.client.ServerCall;
+import ru.practicum.shareit.config.RequestDeadline;
+import ru.practicum.shareit.exceptions.DeadlineExceededException;
+import ru.practicum.shareit.exceptions.ErrorHandler;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Вызывает контроллеры сервера напрямую, без HTTP. Запрос сопоставляется с их {@code @RequestMapping},
+ * аргументы берутся из пути, параметров, заголовков и тела, результат пишется в JSON так же, как
+ * это делает Spring MVC сервера. Исключения разбирает {@link ErrorHandler} сервера, поэтому статусы
+ * и тела ошибок те же, что при раздельном развёртывании.
+ */
+public class InProcessServer implements LocalServer {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    /**
+     * Ресурсы, для которых сервер выдаёт ETag (см. {@code EtagConfig}).
+     */
+    private static final List<String> ETAG_PREFIXES = List.of("/items", "/requests", "/users");
+
+    private final List<Route> routes;
+    private final ObjectMapper objectMapper;
+    private final ConversionService conversionService = ApplicationConversionService.getSharedInstance();
+    private final ErrorHandler errorHandler;
+    private final ExceptionHandlerMethodResolver exceptionHandlers =
+            new ExceptionHandlerMethodResolver(ErrorHandler.class);
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    public InProcessServer(ApplicationContext server, MeterRegistry meterRegistry) {
+        this.objectMapper = server.getBean(ObjectMapper.class);
+        this.errorHandler = server.getBean(ErrorHandler.class);
+        this.entityManagerFactory = server.getBean(EntityManagerFactory.class);
+        this.meterRegistry = meterRegistry;
+        this.routes = server.getBeansWithAnnotation(RestController.class).values().stream()
+                .flatMap(controller -> Route.of(controller).stream())
+                .sorted(Comparator.comparing(Route::pattern, PathPattern.SPECIFICITY_COMPARATOR))
+                .toList();
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(String apiPrefix, ServerCall call) {
+        try {
+            return CompletableFuture.completedFuture(dispatch(apiPrefix, call));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private ResponseEntity<Object> dispatch(String apiPrefix, ServerCall call) {
+        UriComponents uri = UriComponentsBuilder.fromUriString(apiPrefix + call.path())
+                .buildAndExpand(call.uriVariables());
+        PathContainer path = PathContainer.parsePath(uri.getPath() != null ? uri.getPath() : apiPrefix);
+
+        HttpHeaders headers = new HttpHeaders();
+        if (call.userId() != null) {
+            headers.set(USER_HEADER, String.valueOf(call.userId()));
+        }
+        headers.putAll(call.headers());
+
+        boolean pathMatched = false;
+        for (Route route : routes) {
+            PathPattern.PathMatchInfo match = route.pattern().matchAndExtract(path);
+            if (match == null) {
+                continue;
+            }
+            pathMatched = true;
+            if (route.method() == call.method()) {
+                ResponseEntity<Object> response = invoke(route, match.getUriVariables(), uri.getQueryParams(),
+                        headers, call.body());
+                return ETAG_PREFIXES.contains(apiPrefix) ? withEtag(response, headers, call.method()) : response;
+            }
+        }
+        return ResponseEntity.status(pathMatched ? HttpStatus.METHOD_NOT_ALLOWED : HttpStatus.NOT_FOUND)
+                .body(new byte[0]);
+    }
+
+    private ResponseEntity<Object> invoke(Route route, Map<String, String> pathVariables,
+                                          MultiValueMap<String, String> queryParams, HttpHeaders headers,
+                                          @Nullable Object body) {
+        // Как open-in-view у сервера: ленивые связи сущностей догружаются при записи ответа.
+        boolean participate = TransactionSynchronizationManager.hasResource(entityManagerFactory);
+        EntityManager entityManager = null;
+        if (!participate) {
+            entityManager = entityManagerFactory.createEntityManager();
+            TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        }
+        try {
+            startDeadline(headers);
+            Object result = route.invoke(arguments(route, pathVariables, queryParams, headers, body));
+            return success(route, result);
+        } catch (Exception e) {
+            ResponseEntity<Object> response = error(e);
+            if (response.getStatusCode().isSameCodeAs(HttpStatus.GATEWAY_TIMEOUT)) {
+                meterRegistry.counter("shareit.requests.cancelled",
+                        "method", route.method().name(),
+                        "uri", route.pattern().getPatternString(),
+                        "reason", e instanceof DeadlineExceededException ? "expired_on_arrival" : "deadline_exceeded")
+                        .increment();
+            }
+            return response;
+        } finally {
+            RequestDeadline.clear();
+            if (!participate) {
+                TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+                EntityManagerFactoryUtils.closeEntityManager(entityManager);
+            }
+        }
+    }
+
+    private static void startDeadline(HttpHeaders headers) {
+        String timeout = headers.getFirst(RequestDeadline.HEADER);
+        if (timeout == null) {
+            return;
+        }
+        long timeoutMillis;
+        try {
+            timeoutMillis = Long.parseLong(timeout.trim());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        if (timeoutMillis <= 0) {
+            throw new DeadlineExceededException("Истёк срок выполнения запроса");
+        }
+        RequestDeadline.set(System.nanoTime() + timeoutMillis * 1_000_000L);
+    }
+
+    private Object[] arguments(Route route, Map<String, String> pathVariables,
+                               MultiValueMap<String, String> queryParams, HttpHeaders headers,
+                               @Nullable Object body) throws Exception {
+        MethodParameter[] parameters = route.parameters();
+        Object[] args = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            MethodParameter parameter = parameters[i];
+            if (parameter.hasParameterAnnotation(RequestBody.class)) {
+                args[i] = body == null ? null
+                        : objectMapper.convertValue(body, objectMapper.constructType(parameter.getGenericParameterType()));
+                continue;
+            }
+
+            PathVariable pathVariable = parameter.getParameterAnnotation(PathVariable.class);
+            if (pathVariable != null) {
+                String name = name(pathVariable.name(), pathVariable.value(), parameter);
+                args[i] = convert(pathVariables.get(name), name, parameter);
+                continue;
+            }
+
+            RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+            if (requestParam != null) {
+                String name = name(requestParam.name(), requestParam.value(), parameter);
+                String value = valueOrDefault(queryParams.getFirst(name), requestParam.defaultValue());
+                if (value == null && requestParam.required()) {
+                    throw new MissingServletRequestParameterException(name,
+                            parameter.getNestedParameterType().getSimpleName());
+                }
+                args[i] = convert(value, name, parameter);
+                continue;
+            }
+
+            RequestHeader requestHeader = parameter.getParameterAnnotation(RequestHeader.class);
+            if (requestHeader != null) {
+                String name = name(requestHeader.name(), requestHeader.value(), parameter);
+                String value = valueOrDefault(headers.getFirst(name), requestHeader.defaultValue());
+                if (value == null && requestHeader.required()) {
+                    throw new MissingRequestHeaderException(name, parameter);
+                }
+                args[i] = convert(value, name, parameter);
+                continue;
+            }
+
+            throw new IllegalStateException("Параметр " + parameter + " не поддерживается во встроенном режиме");
+        }
+        return args;
+    }
+
+    private static String name(String name, String value, MethodParameter parameter) {
+        if (!name.isEmpty()) {
+            return name;
+        }
+        return !value.isEmpty() ? value : parameter.getParameterName();
+    }
+
+    @Nullable
+    private static String valueOrDefault(@Nullable String value, String defaultValue) {
+        return value == null && !ValueConstants.DEFAULT_NONE.equals(defaultValue) ? defaultValue : value;
+    }
+
+    @Nullable
+    private Object convert(@Nullable String value, String name, MethodParameter parameter) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return conversionService.convert(value, TypeDescriptor.valueOf(String.class), new TypeDescriptor(parameter));
+        } catch (ConversionException e) {
+            throw new MethodArgumentTypeMismatchException(value, parameter.getParameterType(), name, parameter, e);
+        }
+    }
+
+    private ResponseEntity<Object> success(Route route, @Nullable Object result) throws Exception {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(route.status());
+        if (result instanceof ResponseEntity<?> entity) {
+            response = ResponseEntity.status(entity.getStatusCode()).headers(entity.getHeaders());
+            result = entity.getBody();
+        }
+        if (route.handler().getReturnType() == void.class || result == null) {
+            return response.build();
+        }
+        return response.contentType(MediaType.APPLICATION_JSON).body(objectMapper.writeValueAsBytes(result));
+    }
+
+    private ResponseEntity<Object> error(Exception e) {
+        Method handler = exceptionHandlers.resolveMethodByThrowable(e);
+        if (handler == null) {
+            ReflectionUtils.rethrowRuntimeException(e);
+        }
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(handler, ResponseStatus.class);
+        try {
+            Object body = ReflectionUtils.invokeMethod(handler, errorHandler, e);
+            return ResponseEntity.status(status != null ? status.code() : HttpStatus.INTERNAL_SERVER_ERROR)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(objectMapper.writeValueAsBytes(body));
+        } catch (Exception handlerError) {
+            handlerError.addSuppressed(e);
+            ReflectionUtils.rethrowRuntimeException(handlerError);
+            return null;
+        }
+    }
+
+    /**
+     * ETag вычисляется так же, как {@code ShallowEtagHeaderFilter} сервера, чтобы кэш gateway
+     * перепроверял ответы одинаково в обоих режимах.
+     */
+    private static ResponseEntity<Object> withEtag(ResponseEntity<Object> response, HttpHeaders requestHeaders,
+                                                   HttpMethod method) {
+        if (method != HttpMethod.GET || !response.getStatusCode().is2xxSuccessful()
+                || !(response.getBody() instanceof byte[] body)) {
+            return response;
+        }
+        String etag = "\"0" + DigestUtils.md5DigestAsHex(body) + '"';
+        if (requestHeaders.getIfNoneMatch().contains(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .eTag(etag)
+                .body(body);
+    }
+
+    private record Route(HttpMethod method, PathPattern pattern, Object controller, Method handler,
+                         MethodParameter[] parameters, HttpStatus status) {
+
+        static List<Route> of(Object controller) {
+            Class<?> type = AopUtils.getTargetClass(controller);
+            RequestMapping typeMapping = AnnotatedElementUtils.findMergedAnnotation(type, RequestMapping.class);
+            String[] prefixes = typeMapping != null && typeMapping.path().length > 0 ? typeMapping.path() : new String[]{""};
+
+            List<Route> routes = new ArrayList<>();
+            for (Method handler : type.getMethods()) {
+                RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(handler, RequestMapping.class);
+                if (mapping == null) {
+                    continue;
+                }
+                MethodParameter[] parameters = new MethodParameter[handler.getParameterCount()];
+                for (int i = 0; i < parameters.length; i++) {
+                    parameters[i] = new MethodParameter(handler, i);
+                    parameters[i].initParameterNameDiscovery(new DefaultParameterNameDiscoverer());
+                }
+                ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(handler, ResponseStatus.class);
+                HttpStatus status = responseStatus != null ? responseStatus.code() : HttpStatus.OK;
+                String[] paths = mapping.path().length > 0 ? mapping.path() : new String[]{""};
+
+                for (String prefix : prefixes) {
+                    for (String path : paths) {
+                        PathPattern pattern = PathPatternParser.defaultInstance.parse(prefix + path);
+                        for (var requestMethod : mapping.method()) {
+                            routes.add(new Route(requestMethod.asHttpMethod(), pattern, controller, handler,
+                                    parameters, status));
+                        }
+                    }
+                }
+            }
+            return routes;
+        }
+
+        Object invoke(Object[] args) throws Exception {
+            try {
+                return handler.invoke(controller, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof Exception cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
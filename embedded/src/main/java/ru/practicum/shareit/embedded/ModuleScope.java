@@ -0,0 +1,51 @@
+package ru.practicum.shareit.embedded;
+
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import java.security.CodeSource;
+
+/**
+ * Оставляет при сканировании компонентов только классы из того же jar (или каталога классов), что и
+ * главный класс приложения. Gateway и сервер лежат в общем пакете {@code ru.practicum.shareit},
+ * и без фильтра каждый контекст подхватил бы контроллеры и сервисы другого.
+ */
+class ModuleScope extends TypeExcludeFilter {
+    private final ClassLoader classLoader;
+    @Nullable
+    private final String location;
+
+    private ModuleScope(Class<?> applicationClass) {
+        this.classLoader = applicationClass.getClassLoader();
+        this.location = locationOf(applicationClass);
+    }
+
+    static ApplicationContextInitializer<ConfigurableApplicationContext> of(Class<?> applicationClass) {
+        return context -> context.getBeanFactory()
+                .registerSingleton(ModuleScope.class.getName(), new ModuleScope(applicationClass));
+    }
+
+    @Override
+    public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+        if (location == null) {
+            return false;
+        }
+        String className = metadataReader.getClassMetadata().getClassName();
+        try {
+            return !location.equals(locationOf(ClassUtils.forName(className, classLoader)));
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    @Nullable
+    private static String locationOf(Class<?> type) {
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        return codeSource != null && codeSource.getLocation() != null ? codeSource.getLocation().toString() : null;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.embedded;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.support.GenericApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.ShareItServer;
+
+/**
+ * Gateway и сервер в одном процессе для развёртывания на одном узле. Сервер поднимается отдельным
+ * контекстом без веб-сервера, gateway обращается к его контроллерам через {@link InProcessServer}.
+ * Настройки читаются из {@code embedded-server.properties} и {@code embedded-gateway.properties}:
+ * {@code application.properties} обоих модулей лежат в classpath под одним именем.
+ */
+public final class ShareItEmbedded {
+
+    private ShareItEmbedded() {
+    }
+
+    public static void main(String[] args) {
+        start(args);
+    }
+
+    /**
+     * Поднимает сервер и gateway. Закрытие возвращённого контекста gateway закрывает и сервер.
+     */
+    static ConfigurableApplicationContext start(String... args) {
+        ConfigurableApplicationContext server = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.config.name=embedded-server")
+                .initializers(ModuleScope.of(ShareItServer.class))
+                .run(args);
+
+        try {
+            ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGateway.class)
+                    .properties("spring.config.name=embedded-gateway")
+                    .initializers(ModuleScope.of(ShareItGateway.class),
+                            context -> ((GenericApplicationContext) context).registerBean(InProcessServer.class,
+                                    () -> new InProcessServer(server, context.getBean(MeterRegistry.class))))
+                    .run(args);
+            gateway.addApplicationListener(event -> {
+                if (event instanceof ContextClosedEvent) {
+                    server.close();
+                }
+            });
+            return gateway;
+        } catch (RuntimeException e) {
+            server.close();
+            throw e;
+        }
+    }
+}
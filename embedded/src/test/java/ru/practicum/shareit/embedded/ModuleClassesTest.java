@@ -0,0 +1,66 @@
+package ru.practicum.shareit.embedded;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.ShareItServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Gateway и сервер лежат в общем classpath, поэтому класс с одним и тем же полным именем загрузится только
+ * из одного модуля, а второй молча пропадёт.
+ */
+class ModuleClassesTest {
+
+    @Test
+    void gatewayAndServerDoNotShareClassNames() throws Exception {
+        Set<String> gateway = classNames(ShareItGateway.class);
+        Set<String> server = classNames(ShareItServer.class);
+        assertFalse(gateway.isEmpty());
+        assertFalse(server.isEmpty());
+
+        Set<String> shared = new TreeSet<>(gateway);
+        shared.retainAll(server);
+        assertTrue(shared.isEmpty(), () -> "Классы с одинаковым именем в gateway и сервере: " + shared);
+    }
+
+    private static Set<String> classNames(Class<?> applicationClass) throws IOException, URISyntaxException {
+        Path location = Path.of(applicationClass.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Set<String> names = new TreeSet<>();
+        if (Files.isDirectory(location)) {
+            try (Stream<Path> files = Files.walk(location)) {
+                files.map(file -> location.relativize(file).toString().replace(File.separatorChar, '/'))
+                        .filter(ModuleClassesTest::isClass)
+                        .forEach(file -> names.add(className(file)));
+            }
+        } else {
+            try (JarFile jar = new JarFile(location.toFile())) {
+                jar.stream()
+                        .map(JarEntry::getName)
+                        .filter(ModuleClassesTest::isClass)
+                        .forEach(entry -> names.add(className(entry)));
+            }
+        }
+        return names;
+    }
+
+    private static boolean isClass(String path) {
+        return path.endsWith(".class") && !path.startsWith("META-INF/");
+    }
+
+    private static String className(String path) {
+        return path.substring(0, path.length() - ".class".length()).replace('/', '.');
+    }
+}
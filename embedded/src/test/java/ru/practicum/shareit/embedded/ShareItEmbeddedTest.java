@@ -0,0 +1,32 @@
+package ru.practicum.shareit.embedded;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Оба контекста поднимаются вместе, и запрос к gateway доходит до контроллеров сервера без HTTP.
+ */
+class ShareItEmbeddedTest {
+
+    @Test
+    void gatewayCallsServerInProcess() {
+        try (ConfigurableApplicationContext gateway = ShareItEmbedded.start("--server.port=0")) {
+            assertNotNull(gateway.getBean(InProcessServer.class));
+            String url = "http://localhost:" + gateway.getEnvironment().getProperty("local.server.port");
+            RestTemplate rest = new RestTemplate();
+
+            Map<?, ?> created = rest.postForObject(url + "/users",
+                    Map.of("name", "Name", "email", "embedded@mail.ru"), Map.class);
+            assertNotNull(created);
+            Map<?, ?> found = rest.getForObject(url + "/users/{id}", Map.class, created.get("id"));
+            assertNotNull(found);
+            assertEquals("embedded@mail.ru", found.get("email"));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+// Сравнение режимов gateway: платформенные потоки Tomcat и виртуальные потоки.
+//
+//   java -jar gateway.jar                                 # платформенные потоки
+//   java -jar gateway.jar --spring.profiles.active=virtual # виртуальные потоки
+//
+//   k6 run -e GATEWAY=http://localhost:8080 -e VUS=1200 load/gateway-read.js
+//
+// Перед запуском в сервере должны существовать пользователь и предмет с id = 1.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const gateway = __ENV.GATEWAY || 'http://localhost:8080';
+const userId = __ENV.USER_ID || '1';
+const itemId = __ENV.ITEM_ID || '1';
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 1200),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const params = { headers: { 'X-Sharer-User-Id': userId } };
+
+export default function () {
+    const responses = http.batch([
+        ['GET', `${gateway}/users/${userId}`, null, params],
+        ['GET', `${gateway}/items/${itemId}`, null, params],
+        ['GET', `${gateway}/bookings?state=ALL`, null, params],
+    ]);
+    responses.forEach((response) => check(response, { 'status is 200': (r) => r.status === 200 }));
+}
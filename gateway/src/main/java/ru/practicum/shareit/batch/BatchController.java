@@ -0,0 +1,26 @@
+package ru.practicum.shareit.batch;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+
+@Controller
+@RequestMapping("/batch")
+@RequiredArgsConstructor
+public class BatchController {
+    private final BatchService batchService;
+
+    @PostMapping
+    public ResponseEntity<Object> execute(@RequestHeader(name = "X-Sharer-User-Id", required = false) String userId,
+                                          @RequestBody @Valid BatchRequestDto batch,
+                                          HttpServletRequest request) {
+        return ResponseEntity.ok(batchService.execute(request, userId, batch.getRequests()));
+    }
+}
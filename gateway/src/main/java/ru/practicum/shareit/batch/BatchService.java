@@ -0,0 +1,142 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.DispatcherServlet;
+import ru.practicum.shareit.batch.dto.BatchEntryDto;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Выполняет запросы пакета параллельно, прогоняя каждый через {@link DispatcherServlet}: к ним
+ * применяются те же контроллеры, проверки и обработчики ошибок, что и к обычным запросам.
+ * Путь запроса сначала нормализуется и должен вести в один из {@link #ALLOWED_PREFIXES}, поэтому через пакет
+ * не достать ни сам {@code /batch}, ни actuator.
+ */
+@Slf4j
+@Service
+public class BatchService {
+    static final List<String> ALLOWED_PREFIXES = List.of("/users", "/items", "/bookings", "/requests");
+
+    private final DispatcherServlet dispatcherServlet;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<RateLimiter> rateLimiter;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BatchService(DispatcherServlet dispatcherServlet, ObjectMapper objectMapper,
+                        ObjectProvider<RateLimiter> rateLimiter) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
+    }
+
+    public List<BatchResultDto> execute(HttpServletRequest request, @Nullable String userId, List<BatchEntryDto> entries) {
+        HttpServletResponse response = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getResponse();
+        String clientKey = userId != null ? userId : request.getRemoteAddr();
+
+        List<CompletableFuture<BatchResultDto>> results = entries.stream()
+                .map(entry -> CompletableFuture.supplyAsync(() -> execute(request, response, userId, clientKey, entry), executor))
+                .toList();
+        return results.stream().map(CompletableFuture::join).toList();
+    }
+
+    private BatchResultDto execute(HttpServletRequest request, HttpServletResponse response, @Nullable String userId,
+                                   String clientKey, BatchEntryDto entry) {
+        String pathAndQuery = normalizePathAndQuery(entry.getPath());
+        if (pathAndQuery == null) {
+            return new BatchResultDto(HttpStatus.BAD_REQUEST.value(), error("Путь недоступен из пакета"));
+        }
+
+        RateLimiter limiter = rateLimiter.getIfAvailable();
+        if (limiter != null && limiter.tryAcquire(pathAndQuery, clientKey) > 0) {
+            return new BatchResultDto(HttpStatus.TOO_MANY_REQUESTS.value(), error("Превышен лимит запросов"));
+        }
+
+        try {
+            byte[] body = entry.getBody() == null ? new byte[0] : objectMapper.writeValueAsBytes(entry.getBody());
+            BatchSubRequest subRequest = new BatchSubRequest(request, entry.getMethod(), pathAndQuery, userId, body);
+            BatchSubResponse subResponse = new BatchSubResponse(response);
+            dispatcherServlet.service(subRequest, subResponse);
+            return new BatchResultDto(subResponse.getStatus(), readBody(subResponse));
+        } catch (ServletException | IOException | RuntimeException e) {
+            log.warn("Ошибка при выполнении {} {} из пакета", entry.getMethod(), entry.getPath(), e);
+            return new BatchResultDto(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Возвращает путь без пустых сегментов, {@code .} и {@code ..} вместе с исходной строкой запроса
+     * или {@code null}, если путь недопустим или не ведёт в {@link #ALLOWED_PREFIXES}. Пути с
+     * {@code %}, {@code ;} и {@code \} отклоняются целиком: их DispatcherServlet декодирует иначе,
+     * чем выглядит строка.
+     */
+    @Nullable
+    static String normalizePathAndQuery(String pathAndQuery) {
+        int queryStart = pathAndQuery.indexOf('?');
+        String path = queryStart < 0 ? pathAndQuery : pathAndQuery.substring(0, queryStart);
+        if (!path.startsWith("/") || path.indexOf('%') >= 0 || path.indexOf(';') >= 0 || path.indexOf('\\') >= 0) {
+            return null;
+        }
+
+        Deque<String> segments = new ArrayDeque<>();
+        for (String segment : path.split("/")) {
+            if (segment.equals("..")) {
+                if (segments.pollLast() == null) {
+                    return null;
+                }
+            } else if (!segment.isEmpty() && !segment.equals(".")) {
+                segments.addLast(segment);
+            }
+        }
+        String normalized = "/" + String.join("/", segments);
+        boolean allowed = ALLOWED_PREFIXES.stream()
+                .anyMatch(prefix -> normalized.equals(prefix) || normalized.startsWith(prefix + "/"));
+        if (!allowed) {
+            return null;
+        }
+        return queryStart < 0 ? normalized : normalized + pathAndQuery.substring(queryStart);
+    }
+
+    @Nullable
+    private JsonNode readBody(BatchSubResponse response) throws IOException {
+        byte[] content = response.getContent();
+        if (content.length == 0) {
+            return null;
+        }
+        String contentType = response.getContentType();
+        if (contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return objectMapper.readTree(content);
+        }
+        return TextNode.valueOf(new String(content, response.getCharacterEncoding()));
+    }
+
+    private JsonNode error(String message) {
+        return objectMapper.createObjectNode().put("error", message);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,216 @@
+package ru.practicum.shareit.batch;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ответ на запрос из пакета, собираемый в памяти; исходный ответ не затрагивается.
+ */
+class BatchSubResponse extends HttpServletResponseWrapper {
+    private final HttpHeaders headers = new HttpHeaders();
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+    private int status = SC_OK;
+    private boolean committed;
+    private PrintWriter writer;
+
+    BatchSubResponse(HttpServletResponse batch) {
+        super(batch);
+    }
+
+    byte[] getContent() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return content.toByteArray();
+    }
+
+    @Override
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int status) {
+        sendError(status, null);
+    }
+
+    @Override
+    public void sendError(int status, String message) {
+        this.status = status;
+        this.committed = true;
+    }
+
+    @Override
+    public void sendRedirect(String location) {
+        this.status = SC_FOUND;
+        headers.setLocation(URI.create(location));
+        this.committed = true;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        headers.set(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers.add(name, value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        headers.setDate(name, date);
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        setDateHeader(name, date);
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.getFirst(name);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        return headers.getOrEmpty(name);
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return List.copyOf(headers.keySet());
+    }
+
+    @Override
+    public void setContentType(String type) {
+        headers.set(HttpHeaders.CONTENT_TYPE, type);
+    }
+
+    @Override
+    public String getContentType() {
+        return headers.getFirst(HttpHeaders.CONTENT_TYPE);
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return StandardCharsets.UTF_8.name();
+    }
+
+    @Override
+    public void setContentLength(int len) {
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+    }
+
+    @Override
+    public void setLocale(Locale locale) {
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                content.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                content.write(b, off, len);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(content, StandardCharsets.UTF_8));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() {
+        committed = true;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        headers.clear();
+        status = SC_OK;
+    }
+
+    @Override
+    public void resetBuffer() {
+        content.reset();
+    }
+
+    @Override
+    public int getBufferSize() {
+        return 8192;
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+    }
+}
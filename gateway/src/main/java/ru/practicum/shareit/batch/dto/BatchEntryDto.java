@@ -0,0 +1,20 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+@Data
+public class BatchEntryDto {
+
+    @NotBlank
+    @Pattern(regexp = "GET|POST|PUT|PATCH|DELETE", message = "Неподдерживаемый метод")
+    private String method;
+
+    @NotBlank
+    @Pattern(regexp = "^/.*", message = "Путь должен начинаться с /")
+    private String path;
+
+    private JsonNode body;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.batch.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchRequestDto {
+
+    @NotEmpty
+    @Size(max = 20, message = "В пакете не больше 20 запросов")
+    private List<@Valid BatchEntryDto> requests;
+}
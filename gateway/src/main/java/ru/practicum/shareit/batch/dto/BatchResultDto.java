@@ -0,0 +1,6 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public record BatchResultDto(int status, JsonNode body) {
+}
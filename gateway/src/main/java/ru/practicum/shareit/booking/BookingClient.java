@@ -1,49 +1,130 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.booking.dto.BookingNewDto;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionInputDto;
+import ru.practicum.shareit.booking.dto.BookingBulkInputDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransportFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    public BookingClient(@Value("${shareit.server.url}") String serverUrl, RestTemplateBuilder restTemplate) {
-        super(restTemplate
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build());
+    public BookingClient(ServerTransportFactory transportFactory, ResponseCache responseCache,
+                         ObjectMapper objectMapper) {
+        super(transportFactory.create(API_PREFIX));
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Ответ на {@code /items/{itemId}} владельцу содержит последнее и следующее бронирования вещи,
+     * поэтому создание и решение по бронированию удаляют его из {@link ResponseCache}.
+     */
+    public ResponseEntity<Object> addBooking(long userId, BookingInputDto createBookingDto) {
+        ResponseEntity<Object> response = post("", userId, createBookingDto);
+        evictItem(createBookingDto.getItemId());
+        return response;
     }
 
-    public ResponseEntity<Object> addBooking(long userId, BookingNewDto createBookingDto) {
-        return post("", userId, createBookingDto);
+    public ResponseEntity<Object> addBookings(long userId, BookingBulkInputDto bookingsDto) {
+        ResponseEntity<Object> response = post("/bulk", userId, bookingsDto);
+        bookingsDto.getBookings().stream()
+                .map(BookingInputDto::getItemId)
+                .distinct()
+                .forEach(this::evictItem);
+        return response;
     }
 
     public ResponseEntity<Object> patchBooking(long userId, long bookingId, boolean approved) {
-        return patch("/" + bookingId + "?approved=" + approved, userId);
+        ResponseEntity<Object> response = patch("/" + bookingId + "?approved=" + approved, userId);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            evictItem(toJson(response.getBody()).path("item").path("id"));
+        }
+        return response;
+    }
+
+    public ResponseEntity<Object> patchBookings(long userId, BookingBulkDecisionInputDto decisionsDto) {
+        ResponseEntity<Object> response = patch("/bulk", userId, decisionsDto);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            for (JsonNode result : toJson(response.getBody())) {
+                evictItem(result.path("booking").path("item").path("id"));
+            }
+        }
+        return response;
+    }
+
+    public ResponseEntity<Object> getBookingsByBooker(long bookerId, State state, int from, int size,
+                                                      @Nullable String cursor) {
+        return getPage("", bookerId, state, from, size, cursor);
     }
 
-    public ResponseEntity<Object> getBookingsByBooker(long bookerId, State state, int from, int size) {
-        Map<String, Object> parameters = Map.of("state", state, "from", from, "size", size);
-        return get("?state={state}&from={from}&size={size}", bookerId, parameters);
+    /**
+     * Последние {@code size} бронирований пользователя одной вещи; фильтр по вещи выполняет сервер.
+     */
+    public CompletableFuture<ResponseEntity<Object>> getItemBookingsByBookerAsync(long bookerId, long itemId,
+                                                                                  int size) {
+        return getAsync("?state={state}&itemId={itemId}&from=0&size={size}", bookerId,
+                Map.of("state", State.ALL, "itemId", itemId, "size", size));
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(long userId, State state, int from, int size) {
-        Map<String, Object> parameters = Map.of("state", state, "from", from, "size", size);
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getBookingsByOwner(long userId, State state, int from, int size,
+                                                     @Nullable String cursor) {
+        return getPage("/owner", userId, state, from, size, cursor);
+    }
+
+    private ResponseEntity<Object> getPage(String path, long userId, State state, int from, int size,
+                                           @Nullable String cursor) {
+        if (cursor == null) {
+            Map<String, Object> parameters = Map.of("state", state, "from", from, "size", size);
+            return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+        }
+        Map<String, Object> parameters = Map.of("state", state, "from", from, "size", size, "cursor", cursor);
+        return get(path + "?state={state}&from={from}&size={size}&cursor={cursor}", userId, parameters);
     }
 
     public ResponseEntity<Object> getBookingByBookerOrOwnerItem(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
-}
\ No newline at end of file
+
+    private void evictItem(JsonNode itemId) {
+        if (itemId.canConvertToLong()) {
+            evictItem(itemId.asLong());
+        }
+    }
+
+    private void evictItem(@Nullable Long itemId) {
+        if (itemId != null) {
+            responseCache.evict("/items/" + itemId);
+        }
+    }
+
+    private JsonNode toJson(@Nullable Object body) {
+        try {
+            if (body == null) {
+                return MissingNode.getInstance();
+            }
+            return body instanceof byte[] bytes ? objectMapper.readTree(bytes) : objectMapper.valueToTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
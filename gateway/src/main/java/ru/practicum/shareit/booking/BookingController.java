@@ -8,7 +8,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.shareit.booking.dto.BookingNewDto;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionInputDto;
+import ru.practicum.shareit.booking.dto.BookingBulkInputDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.State;
 
 @Controller
@@ -21,10 +23,16 @@ public class BookingController {
 
     @PostMapping
     public ResponseEntity<Object> addBooking(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
-                                             @RequestBody @Valid BookingNewDto createBookingDto) {
+                                             @RequestBody @Valid BookingInputDto createBookingDto) {
         return bookingClient.addBooking(userId, createBookingDto);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<Object> addBookings(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                              @RequestBody @Valid BookingBulkInputDto bookingsDto) {
+        return bookingClient.addBookings(userId, bookingsDto);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> patchBooking(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
                                                @PathVariable Long bookingId,
@@ -32,24 +40,32 @@ public class BookingController {
         return bookingClient.patchBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/bulk")
+    public ResponseEntity<Object> patchBookings(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                @RequestBody @Valid BookingBulkDecisionInputDto decisionsDto) {
+        return bookingClient.patchBookings(userId, decisionsDto);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getBookingsByBooker(@RequestHeader(name = "X-Sharer-User-Id") Long bookerId,
                                                       @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
                                                       @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-                                                      @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+                                                      @Positive @RequestParam(name = "size", defaultValue = "10") int size,
+                                                      @RequestParam(name = "cursor", required = false) String cursor) {
 
         State state = bookingService.parseState(stateParam);
-        return bookingClient.getBookingsByBooker(bookerId, state, from, size);
+        return bookingClient.getBookingsByBooker(bookerId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getBookingsByOwner(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
                                                      @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
                                                      @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-                                                     @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+                                                     @Positive @RequestParam(name = "size", defaultValue = "10") int size,
+                                                     @RequestParam(name = "cursor", required = false) String cursor) {
 
         State state = bookingService.parseState(stateParam);
-        return bookingClient.getBookingsByOwner(userId, state, from, size);
+        return bookingClient.getBookingsByOwner(userId, state, from, size, cursor);
     }
 
     @GetMapping("/{bookingId}")
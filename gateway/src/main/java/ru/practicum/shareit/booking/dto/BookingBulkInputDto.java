@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingBulkInputDto {
+
+    @NotEmpty
+    @Size(max = 500, message = "В пакете не больше 500 бронирований")
+    private List<@Valid BookingInputDto> bookings;
+}
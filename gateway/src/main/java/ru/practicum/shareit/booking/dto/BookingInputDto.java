@@ -11,7 +11,7 @@ import java.time.LocalDateTime;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class BookingNewDto {
+public class BookingInputDto {
 
     private Long itemId;
 
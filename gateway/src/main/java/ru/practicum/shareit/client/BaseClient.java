@@ -1,18 +1,23 @@
 package ru.practicum.shareit.client;
 
-import org.springframework.http.*;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final Executor ASYNC_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    protected final ServerTransport transport;
+
+    public BaseClient(ServerTransport transport) {
+        this.transport = transport;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -27,6 +32,24 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    /**
+     * GET, ответ на который gateway может отдать из {@link ResponseCache}. Путь не должен содержать параметров запроса.
+     */
+    protected ResponseEntity<Object> getCacheable(String path, Long userId) {
+        return send(new ServerCall(HttpMethod.GET, path, userId, null, null).asCacheable());
+    }
+
+    /**
+     * Асинхронные варианты GET для параллельных запросов: блокирующий транспорт выполняется в виртуальном потоке.
+     */
+    protected CompletableFuture<ResponseEntity<Object>> getAsync(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return sendAsync(new ServerCall(HttpMethod.GET, path, userId, parameters, null));
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> getCacheableAsync(String path, Long userId) {
+        return sendAsync(new ServerCall(HttpMethod.GET, path, userId, null, null).asCacheable());
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -76,42 +99,22 @@ public class BaseClient {
     }
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
-        }
-        return prepareGatewayResponse(shareitServerResponse);
+        return send(new ServerCall(method, path, userId, parameters, body));
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-        if (userId != null) {
-            headers.set("X-Sharer-User-Id", String.valueOf(userId));
-        }
-        return headers;
+    private CompletableFuture<ResponseEntity<Object>> sendAsync(ServerCall call) {
+        return CompletableFuture.supplyAsync(() -> transport.exchange(call), ASYNC_EXECUTOR)
+                .thenCompose(Function.identity());
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private ResponseEntity<Object> send(ServerCall call) {
+        try {
+            return transport.exchange(call).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
-
-        return responseBuilder.build();
     }
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.client.cache")
+public class CacheProperties {
+    private boolean enabled = true;
+    /**
+     * Максимальное число ответов в кэше.
+     */
+    private long maxSize = 10_000;
+    /**
+     * Время хранения ответа с момента последней записи или перепроверки.
+     */
+    private Duration timeToLive = Duration.ofMinutes(10);
+    /**
+     * Время, в течение которого ответ отдаётся без перепроверки на сервере через If-None-Match.
+     */
+    private Duration freshFor = Duration.ofSeconds(1);
+}
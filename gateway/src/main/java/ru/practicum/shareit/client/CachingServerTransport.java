@@ -0,0 +1,87 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Отдаёт ответы на помеченные {@link ServerCall#cacheable()} GET-запросы из {@link ResponseCache},
+ * перепроверяя устаревшие записи через If-None-Match. Изменяющие запросы через этот транспорт
+ * удаляют записи затронутого ресурса.
+ */
+public class CachingServerTransport implements ServerTransport {
+    private final ServerTransport delegate;
+    private final String apiPrefix;
+    private final ResponseCache cache;
+    private final Counter notModified;
+    private final Counter modified;
+
+    public CachingServerTransport(ServerTransport delegate, String apiPrefix, ResponseCache cache,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.apiPrefix = apiPrefix;
+        this.cache = cache;
+        this.notModified = meterRegistry.counter("shareit.client.cache.revalidations", "result", "not_modified");
+        this.modified = meterRegistry.counter("shareit.client.cache.revalidations", "result", "modified");
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(ServerCall call) {
+        String path = resourcePath(call);
+        if (call.method() != HttpMethod.GET) {
+            return delegate.exchange(call).whenComplete((response, e) -> cache.evictEnclosing(path));
+        }
+        if (!call.cacheable() || call.parameters() != null || call.path().contains("?")) {
+            return delegate.exchange(call);
+        }
+
+        ResponseCache.Entry cached = cache.get(path, call.userId());
+        if (cached != null && cache.isFresh(cached)) {
+            return CompletableFuture.completedFuture(toResponse(cached));
+        }
+
+        ServerCall request = cached != null ? call.withHeader(HttpHeaders.IF_NONE_MATCH, cached.etag()) : call;
+        return delegate.exchange(request).thenApply(response -> {
+            if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                notModified.increment();
+                cache.put(path, call.userId(), cached.revalidated());
+                return toResponse(cached);
+            }
+            if (cached != null) {
+                modified.increment();
+            }
+
+            String etag = response.getHeaders().getETag();
+            if (response.getStatusCode().is2xxSuccessful() && etag != null && response.hasBody()) {
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(response.getHeaders().getContentType());
+                headers.setETag(etag);
+                cache.put(path, call.userId(),
+                        new ResponseCache.Entry(response.getBody(), headers, etag, System.nanoTime()));
+            } else {
+                cache.remove(path, call.userId());
+            }
+            return response;
+        });
+    }
+
+    private String resourcePath(ServerCall call) {
+        String expanded = UriComponentsBuilder.fromUriString(call.path())
+                .replaceQuery(null)
+                .buildAndExpand(call.uriVariables())
+                .getPath();
+        return expanded != null ? apiPrefix + expanded : apiPrefix;
+    }
+
+    private static ResponseEntity<Object> toResponse(ResponseCache.Entry entry) {
+        return ResponseEntity.ok()
+                .headers(entry.headers())
+                .body(entry.body());
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Оставшееся время запроса к серверу. Передаётся серверу в заголовке {@value #HEADER}
+ * в миллисекундах; сервер ограничивает им транзакцию и JDBC-запросы.
+ */
+final class CallTimeout {
+    static final String HEADER = "X-Request-Timeout-Ms";
+
+    /**
+     * Время ожидания ответа для блокирующего транспорта: запрос выполняется в том же потоке,
+     * и фабрика запросов HttpClient берёт значение отсюда.
+     */
+    private static final ThreadLocal<Long> BOUND_MILLIS = new ThreadLocal<>();
+
+    private CallTimeout() {
+    }
+
+    /**
+     * @return время на запрос в миллисекундах или {@code -1}, если оно не задано
+     */
+    static long millis(ServerCall call) {
+        String header = call.headers().getFirst(HEADER);
+        if (header == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(header);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static void bind(long millis) {
+        BOUND_MILLIS.set(millis);
+    }
+
+    static void clear() {
+        BOUND_MILLIS.remove();
+    }
+
+    @Nullable
+    static Long boundMillis() {
+        return BOUND_MILLIS.get();
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Автомат по последним {@code slidingWindowSize} вызовам: размыкается, когда доля ошибок
+ * или медленных ответов превышает порог, через {@code openDuration} пропускает
+ * {@code halfOpenCalls} пробных вызовов и по их итогам замыкается или размыкается снова.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    private final ResilienceProperties.Settings settings;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final byte[] outcomes;
+
+    private State state = State.CLOSED;
+    private int position;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+
+    public CircuitBreaker(ResilienceProperties.Settings settings) {
+        this.settings = settings;
+        this.slowCallNanos = settings.getSlowCallDuration().toNanos();
+        this.openNanos = settings.getOpenDuration().toNanos();
+        this.outcomes = new byte[settings.getSlidingWindowSize()];
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openNanos) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    public synchronized void onComplete(boolean failed, long durationNanos) {
+        if (state == State.OPEN) {
+            return;
+        }
+        byte outcome = failed ? FAILURE : durationNanos > slowCallNanos ? SLOW : SUCCESS;
+        if (recorded == outcomes.length) {
+            forget(outcomes[position]);
+        } else {
+            recorded++;
+        }
+        outcomes[position] = outcome;
+        position = (position + 1) % outcomes.length;
+        if (outcome == FAILURE) {
+            failures++;
+        } else if (outcome == SLOW) {
+            slowCalls++;
+        }
+
+        int minimumCalls = state == State.HALF_OPEN ? settings.getHalfOpenCalls() : settings.getMinimumCalls();
+        if (recorded < minimumCalls) {
+            return;
+        }
+        if (failureRate() >= settings.getFailureRateThreshold() || slowCallRate() >= settings.getSlowCallRateThreshold()) {
+            transitionTo(State.OPEN);
+        } else if (state == State.HALF_OPEN) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized float failureRate() {
+        return recorded == 0 ? 0 : failures * 100f / recorded;
+    }
+
+    public synchronized float slowCallRate() {
+        return recorded == 0 ? 0 : slowCalls * 100f / recorded;
+    }
+
+    public synchronized int bufferedCalls() {
+        return recorded;
+    }
+
+    private void forget(byte outcome) {
+        if (outcome == FAILURE) {
+            failures--;
+        } else if (outcome == SLOW) {
+            slowCalls--;
+        }
+    }
+
+    private void transitionTo(State next) {
+        state = next;
+        position = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+        if (next == State.OPEN) {
+            openedAtNanos = System.nanoTime();
+        } else if (next == State.HALF_OPEN) {
+            halfOpenPermits = settings.getHalfOpenCalls();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/circuitbreakers}: состояние автоматов и ограничителей по клиентам.
+ */
+@Component
+@Endpoint(id = "circuitbreakers")
+@RequiredArgsConstructor
+public class CircuitBreakersEndpoint {
+    private final ResilienceRegistry registry;
+
+    @ReadOperation
+    public Map<String, ClientState> circuitBreakers() {
+        Map<String, ClientState> states = new TreeMap<>();
+        registry.guards().forEach((name, guard) -> states.put(name, new ClientState(
+                guard.circuitBreaker().getState(),
+                guard.circuitBreaker().failureRate(),
+                guard.circuitBreaker().slowCallRate(),
+                guard.circuitBreaker().bufferedCalls(),
+                guard.bulkhead().availablePermits(),
+                guard.maxConcurrentCalls())));
+        return states;
+    }
+
+    public record ClientState(CircuitBreaker.State state, float failureRate, float slowCallRate, int bufferedCalls,
+                              int availableConcurrentCalls, int maxConcurrentCalls) {
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.client")
+public class ClientProperties {
+    /**
+     * Отдавать клиенту тело ответа сервера как есть, без десериализации в объекты.
+     */
+    private boolean passthrough = false;
+
+    /**
+     * Объединять одновременные одинаковые GET-запросы в один вызов сервера.
+     */
+    private boolean coalesce = true;
+
+    private Transport transport = Transport.BLOCKING;
+
+    /**
+     * Формат тел запросов и ответов между gateway и сервером. Клиенты gateway всегда получают JSON, поэтому
+     * при {@link #passthrough} между gateway и сервером остаётся JSON: тело отдаётся клиенту без перекодирования.
+     */
+    private WireFormat wireFormat = WireFormat.JSON;
+
+    public MediaType serverMediaType() {
+        return passthrough ? MediaType.APPLICATION_JSON : wireFormat.mediaType();
+    }
+
+    public enum Transport {
+        /**
+         * RestTemplate на общем пуле соединений Apache HttpClient.
+         */
+        BLOCKING,
+        /**
+         * WebClient на event loop Reactor Netty.
+         */
+        REACTIVE
+    }
+
+    public enum WireFormat {
+        JSON(MediaType.APPLICATION_JSON),
+        /**
+         * Бинарный Jackson Smile: компактнее JSON и быстрее разбирается.
+         */
+        SMILE(new MediaType("application", "x-jackson-smile"));
+
+        private final MediaType mediaType;
+
+        WireFormat(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Объединяет одновременные одинаковые GET-запросы (путь, параметры, пользователь, заголовки)
+ * в один вызов сервера: пока запрос в полёте, остальные получают тот же ответ.
+ */
+public class CoalescingServerTransport implements ServerTransport {
+    private final ServerTransport delegate;
+    private final ConcurrentMap<Key, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+    private final Counter forwarded;
+
+    public CoalescingServerTransport(ServerTransport delegate, String name, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.coalesced = meterRegistry.counter("shareit.client.coalescing", "client", name, "result", "coalesced");
+        this.forwarded = meterRegistry.counter("shareit.client.coalescing", "client", name, "result", "forwarded");
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(ServerCall call) {
+        if (call.method() != HttpMethod.GET) {
+            return delegate.exchange(call);
+        }
+
+        Key key = new Key(call.path(), call.userId(), call.parameters(), call.headers());
+        CompletableFuture<ResponseEntity<Object>> leader = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy();
+        }
+
+        forwarded.increment();
+        CompletableFuture<ResponseEntity<Object>> upstream;
+        try {
+            upstream = delegate.exchange(call);
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+        upstream.whenComplete((response, e) -> {
+            // Снимаем запись до завершения, чтобы пришедшие позже запросы не получили уже отданный ответ.
+            inFlight.remove(key, leader);
+            if (e != null) {
+                leader.completeExceptionally(e);
+            } else {
+                leader.complete(response);
+            }
+        });
+        return leader.copy();
+    }
+
+    private record Key(String path, Long userId, Map<String, Object> parameters, HttpHeaders headers) {
+    }
+}
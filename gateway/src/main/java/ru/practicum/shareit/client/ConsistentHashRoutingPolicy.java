@@ -0,0 +1,111 @@
+package ru.practicum.shareit.client;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Закрепляет запросы за экземплярами по хешу ключа на кольце с виртуальными узлами: запросы
+ * одного пользователя (для вещей — одной вещи) попадают на один экземпляр, а при появлении или
+ * уходе экземпляра переезжает только его доля ключей. Если экземпляр ключа недоступен, берётся
+ * следующий по кольцу; запросы без ключа распределяются политикой {@code fallback}.
+ */
+public class ConsistentHashRoutingPolicy implements RoutingPolicy {
+    private static final long USER_SALT = 0x5bd1e995L;
+    private static final long ITEM_SALT = 0x27d4eb2fL;
+
+    private final long[] hashes;
+    private final ServerInstance[] owners;
+    private final boolean routeByItem;
+    private final RoutingPolicy fallback;
+
+    /**
+     * @param routeByItem для запросов вида {@code /{itemId}...} брать ключом id вещи
+     */
+    public ConsistentHashRoutingPolicy(List<ServerInstance> instances, int virtualNodes, boolean routeByItem,
+                                       RoutingPolicy fallback) {
+        this.routeByItem = routeByItem;
+        this.fallback = fallback;
+
+        Node[] nodes = new Node[instances.size() * virtualNodes];
+        int n = 0;
+        for (ServerInstance instance : instances) {
+            for (int i = 0; i < virtualNodes; i++) {
+                nodes[n++] = new Node(hash(instance.getUrl() + "#" + i), instance);
+            }
+        }
+        Arrays.sort(nodes, Comparator.comparingLong(Node::hash));
+        this.hashes = new long[nodes.length];
+        this.owners = new ServerInstance[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            hashes[i] = nodes[i].hash();
+            owners[i] = nodes[i].instance();
+        }
+    }
+
+    @Override
+    public ServerInstance choose(ServerCall call, List<ServerInstance> candidates, long nowNanos) {
+        long itemId = routeByItem ? leadingId(call.path()) : -1;
+        long key;
+        if (itemId >= 0) {
+            key = mix(itemId ^ ITEM_SALT);
+        } else if (call.userId() != null) {
+            key = mix(call.userId() ^ USER_SALT);
+        } else {
+            return fallback.choose(call, candidates, nowNanos);
+        }
+
+        int index = Arrays.binarySearch(hashes, key);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        for (int i = 0; i < owners.length; i++) {
+            ServerInstance owner = owners[(index + i) % owners.length];
+            if (candidates.contains(owner)) {
+                return owner;
+            }
+        }
+        return fallback.choose(call, candidates, nowNanos);
+    }
+
+    /**
+     * Число в начале пути {@code /123/comment}, без разбора строки в объекты; -1, если его нет.
+     */
+    private static long leadingId(String path) {
+        if (path.length() < 2 || path.charAt(0) != '/') {
+            return -1;
+        }
+        long id = 0;
+        int i = 1;
+        for (; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            id = id * 10 + (c - '0');
+        }
+        if (i == 1 || i < path.length() && path.charAt(i) != '/' && path.charAt(i) != '?') {
+            return -1;
+        }
+        return id;
+    }
+
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    // Финальное перемешивание SplitMix64: близкие id расходятся по всему кольцу.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private record Node(long hash, ServerInstance instance) {
+    }
+}
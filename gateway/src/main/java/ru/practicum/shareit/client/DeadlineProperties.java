@@ -0,0 +1,28 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.client.deadline")
+public class DeadlineProperties {
+    private boolean enabled = true;
+
+    /**
+     * Сколько gateway ждёт ответа сервера, если для клиента не задано своё значение.
+     */
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Время ожидания по имени клиента ({@code items}, {@code bookings}, {@code users}, {@code requests}).
+     */
+    private Map<String, Duration> clients = new HashMap<>();
+
+    public Duration forClient(String name) {
+        return clients.getOrDefault(name, defaultTimeout);
+    }
+}
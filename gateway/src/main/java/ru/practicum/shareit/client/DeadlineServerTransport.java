@@ -0,0 +1,88 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничивает запрос клиента временем из {@link DeadlineProperties}: задаёт срок в {@link ServerCall#deadlineNanos()},
+ * а {@link #perAttempt} под хеджированием и повторами передаёт серверу остаток срока на момент каждой попытки
+ * в заголовке {@value CallTimeout#HEADER}. Если ответ не пришёл вовремя, клиент получает 504,
+ * а запрос учитывается в {@code shareit.client.deadline.exceeded}.
+ */
+public class DeadlineServerTransport implements ServerTransport {
+    private static final byte[] EXPIRED = "{\"error\":\"Истёк срок выполнения запроса\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final ServerTransport delegate;
+    private final String name;
+    private final long timeoutMillis;
+    private final MeterRegistry meterRegistry;
+
+    public DeadlineServerTransport(ServerTransport delegate, String name, Duration timeout,
+                                   MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.name = name;
+        this.timeoutMillis = timeout.toMillis();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(ServerCall call) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        CompletableFuture<ResponseEntity<Object>> response;
+        try {
+            response = delegate.exchange(call.withDeadline(deadline));
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        return response.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .handle((entity, e) -> {
+                    if (e == null) {
+                        if (entity.getStatusCode().isSameCodeAs(HttpStatus.GATEWAY_TIMEOUT)) {
+                            exceeded(call, "server").increment();
+                        }
+                        return CompletableFuture.completedFuture(entity);
+                    }
+                    // Ошибка транспорта после истечения срока — это тайм-аут ответа, а не сбой сервера.
+                    if (System.nanoTime() - deadline >= 0) {
+                        exceeded(call, "gateway").increment();
+                        return CompletableFuture.completedFuture(
+                                ServerResponses.errorResponse(HttpStatus.GATEWAY_TIMEOUT, EXPIRED));
+                    }
+                    return CompletableFuture.<ResponseEntity<Object>>failedFuture(e);
+                })
+                .thenCompose(future -> future);
+    }
+
+    /**
+     * Транспорт отдельной попытки: перед отправкой пересчитывает оставшийся срок в {@value CallTimeout#HEADER}
+     * и не отправляет попытку, если срок уже истёк. Ставится ниже хеджирования и выше автомата, так что
+     * пропущенная попытка не считается сбоем сервера.
+     */
+    public static ServerTransport perAttempt(ServerTransport delegate) {
+        return call -> {
+            if (call.deadlineNanos() == null) {
+                return delegate.exchange(call);
+            }
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(call.remainingNanos());
+            if (remainingMillis <= 0) {
+                return CompletableFuture.failedFuture(new ServerUnavailableException("Истёк срок выполнения запроса"));
+            }
+            return delegate.exchange(call.withHeader(CallTimeout.HEADER, String.valueOf(remainingMillis)));
+        };
+    }
+
+    private Counter exceeded(ServerCall call, String side) {
+        return meterRegistry.counter("shareit.client.deadline.exceeded",
+                "client", name, "method", call.method().name(), "side", side);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.client.hedging")
+public class HedgingProperties {
+    private boolean enabled = false;
+
+    /**
+     * Перцентиль задержки ответов, после которого отправляется дублирующий запрос.
+     */
+    private double percentile = 0.95;
+
+    /**
+     * Пока ответов меньше, задержка неизвестна и дублирующие запросы не отправляются.
+     */
+    private int minSamples = 100;
+
+    private Duration minDelay = Duration.ofMillis(5);
+
+    /**
+     * Повторять запрос, если первая попытка завершилась ошибкой транспорта.
+     */
+    private boolean retryOnError = true;
+
+    /**
+     * Доля запросов, на которую в среднем можно отправить дублирующие и повторные попытки.
+     */
+    private double budgetRatio = 0.1;
+
+    /**
+     * Сколько неизрасходованных попыток может накопиться в бюджете.
+     */
+    private int budgetMax = 100;
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Для GET-запросов отправляет дублирующую попытку, если первая не ответила за перцентиль
+ * задержки последних ответов, и отдаёт ответ той, что успела первой. Попытку, завершившуюся
+ * ошибкой транспорта, повторяет один раз. Дополнительные попытки расходуют {@link RetryBudget}
+ * и не отправляются после срока запроса.
+ */
+public class HedgingServerTransport implements ServerTransport {
+    private static final Executor ATTEMPT_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ServerTransport delegate;
+    private final RetryBudget budget;
+    private final boolean retryOnError;
+    private final LatencyWindow latencies;
+    private final Counter hedgesSent;
+    private final Counter retriesSent;
+    private final Counter budgetExhausted;
+    private final Counter primaryWins;
+    private final Counter hedgeWins;
+    private final Counter retryWins;
+
+    public HedgingServerTransport(ServerTransport delegate, String name, HedgingProperties properties,
+                                  RetryBudget budget, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.budget = budget;
+        this.retryOnError = properties.isRetryOnError();
+        this.latencies = new LatencyWindow(properties.getPercentile(), properties.getMinSamples(),
+                properties.getMinDelay().toNanos());
+        this.hedgesSent = meterRegistry.counter("shareit.client.hedging.attempts", "client", name, "kind", "hedge");
+        this.retriesSent = meterRegistry.counter("shareit.client.hedging.attempts", "client", name, "kind", "retry");
+        this.budgetExhausted = meterRegistry.counter("shareit.client.hedging.budget.exhausted", "client", name);
+        this.primaryWins = meterRegistry.counter("shareit.client.hedging.wins", "client", name, "winner", "primary");
+        this.hedgeWins = meterRegistry.counter("shareit.client.hedging.wins", "client", name, "winner", "hedge");
+        this.retryWins = meterRegistry.counter("shareit.client.hedging.wins", "client", name, "winner", "retry");
+        Gauge.builder("shareit.client.hedging.delay", latencies, window -> window.percentileNanos() / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .tag("client", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(ServerCall call) {
+        if (call.method() != HttpMethod.GET) {
+            return delegate.exchange(call);
+        }
+        budget.deposit();
+
+        Attempts attempts = new Attempts(call);
+        attempts.launch(primaryWins);
+        long hedgeDelay = latencies.percentileNanos();
+        if (hedgeDelay >= 0) {
+            CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.NANOSECONDS, ATTEMPT_EXECUTOR)
+                    .execute(attempts::hedge);
+        }
+        return attempts.result;
+    }
+
+    private class Attempts {
+        private final ServerCall call;
+        private final CompletableFuture<ResponseEntity<Object>> result = new CompletableFuture<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicBoolean retried = new AtomicBoolean();
+
+        Attempts(ServerCall call) {
+            this.call = call;
+        }
+
+        void hedge() {
+            if (result.isDone() || call.remainingNanos() <= 0) {
+                return;
+            }
+            if (!budget.tryWithdraw()) {
+                budgetExhausted.increment();
+                return;
+            }
+            hedgesSent.increment();
+            launch(hedgeWins);
+        }
+
+        void launch(Counter wins) {
+            inFlight.incrementAndGet();
+            long start = System.nanoTime();
+            CompletableFuture.supplyAsync(() -> delegate.exchange(call), ATTEMPT_EXECUTOR)
+                    .thenCompose(Function.identity())
+                    .whenComplete((response, e) -> {
+                        int remaining = inFlight.decrementAndGet();
+                        if (e == null) {
+                            latencies.record(System.nanoTime() - start);
+                            if (result.complete(response)) {
+                                wins.increment();
+                            }
+                        } else if (remaining == 0 && !result.isDone()) {
+                            retryOrFail(e);
+                        }
+                    });
+        }
+
+        private void retryOrFail(Throwable e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            // Отказ ограничителя или разомкнутого автомата не повторяем: это только добавит нагрузки.
+            boolean retryable = retryOnError && !(cause instanceof ServerUnavailableException)
+                    && call.remainingNanos() > 0;
+            if (retryable && retried.compareAndSet(false, true)) {
+                if (budget.tryWithdraw()) {
+                    retriesSent.increment();
+                    launch(retryWins);
+                    return;
+                }
+                budgetExhausted.increment();
+            }
+            result.completeExceptionally(cause);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий пул HTTP-соединений gateway → server, который используют все наследники {@link BaseClient}.
+ * Для неблокирующего транспорта ({@code shareit.client.transport=reactive}) тот же пул настраивается для Reactor Netty.
+ */
+@Configuration
+@EnableConfigurationProperties({HttpClientProperties.class, ClientProperties.class, CacheProperties.class,
+        ResilienceProperties.class, HedgingProperties.class,
+        LoadBalancerProperties.class, DeadlineProperties.class})
+public class HttpClientConfig {
+
+    @Bean
+    public PoolingHttpClientConnectionManager shareItConnectionManager(HttpClientProperties properties) {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                .setSocketTimeout(Timeout.of(properties.getResponseTimeout()))
+                .setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+                .build();
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+    }
+
+    @Bean
+    public CloseableHttpClient shareItHttpClient(PoolingHttpClientConnectionManager shareItConnectionManager,
+                                                 HttpClientProperties properties,
+                                                 MeterRegistry meterRegistry) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(properties.getLeaseTimeout()))
+                .setResponseTimeout(Timeout.of(properties.getResponseTimeout()))
+                .setDefaultKeepAlive(properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(new InstrumentedConnectionManager(shareItConnectionManager, meterRegistry))
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleEviction()))
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareItRequestFactory(CloseableHttpClient shareItHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(shareItHttpClient) {
+            @Override
+            protected RequestConfig createRequestConfig(Object client) {
+                RequestConfig config = super.createRequestConfig(client);
+                Long timeoutMillis = CallTimeout.boundMillis();
+                if (config == null || timeoutMillis == null) {
+                    return config;
+                }
+                Timeout responseTimeout = config.getResponseTimeout();
+                if (responseTimeout != null && responseTimeout.toMilliseconds() > 0
+                        && responseTimeout.toMilliseconds() <= timeoutMillis) {
+                    return config;
+                }
+                return RequestConfig.copy(config).setResponseTimeout(Timeout.ofMilliseconds(timeoutMillis)).build();
+            }
+        };
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnProperty(name = "shareit.client.transport", havingValue = "reactive")
+    public ConnectionProvider shareItReactiveConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxTotal())
+                .pendingAcquireTimeout(properties.getLeaseTimeout())
+                .maxIdleTime(properties.getKeepAlive())
+                .evictInBackground(properties.getIdleEviction())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.client.transport", havingValue = "reactive")
+    public ClientHttpConnector shareItReactiveConnector(ConnectionProvider shareItReactiveConnectionProvider,
+                                                        HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(shareItReactiveConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    @Bean
+    public MeterBinder shareItConnectionPoolMetrics(PoolingHttpClientConnectionManager shareItConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(shareItConnectionManager, "shareit-server");
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.client.pool")
+public class HttpClientProperties {
+    private int maxTotal = 200;
+    private int maxPerRoute = 100;
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration idleEviction = Duration.ofSeconds(30);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration leaseTimeout = Duration.ofSeconds(5);
+    private Duration responseTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Обёртка над пулом соединений, замеряющая время ожидания свободного соединения.
+ */
+public class InstrumentedConnectionManager implements HttpClientConnectionManager {
+    private final HttpClientConnectionManager delegate;
+    private final Timer leaseTimer;
+    private final Timer leaseTimeoutTimer;
+
+    public InstrumentedConnectionManager(HttpClientConnectionManager delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.leaseTimer = Timer.builder("shareit.client.pool.lease")
+                .description("Время ожидания соединения из пула")
+                .tag("result", "acquired")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.leaseTimeoutTimer = Timer.builder("shareit.client.pool.lease")
+                .description("Время ожидания соединения из пула")
+                .tag("result", "timeout")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest leaseRequest = delegate.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                long start = System.nanoTime();
+                try {
+                    ConnectionEndpoint endpoint = leaseRequest.get(timeout);
+                    leaseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return endpoint;
+                } catch (TimeoutException e) {
+                    leaseTimeoutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return leaseRequest.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void release(ConnectionEndpoint endpoint, Object newState, TimeValue validDuration) {
+        delegate.release(endpoint, newState, validDuration);
+    }
+
+    @Override
+    public void connect(ConnectionEndpoint endpoint, TimeValue connectTimeout, HttpContext context) throws IOException {
+        delegate.connect(endpoint, connectTimeout, context);
+    }
+
+    @Override
+    public void upgrade(ConnectionEndpoint endpoint, HttpContext context) throws IOException {
+        delegate.upgrade(endpoint, context);
+    }
+
+    @Override
+    public void close(CloseMode closeMode) {
+        delegate.close(closeMode);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
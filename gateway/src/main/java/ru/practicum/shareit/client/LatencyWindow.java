@@ -0,0 +1,46 @@
+package ru.practicum.shareit.client;
+
+import java.util.Arrays;
+
+/**
+ * Задержки последних ответов в кольцевом буфере. Перцентиль пересчитывается раз в
+ * {@value #RECOMPUTE_EVERY} записей, так что чтение не требует сортировки.
+ */
+class LatencyWindow {
+    private static final int SIZE = 1024;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final long[] samples = new long[SIZE];
+    private final double percentile;
+    private final int minSamples;
+    private final long minNanos;
+    private int position;
+    private int count;
+    private volatile long percentileNanos = -1;
+
+    LatencyWindow(double percentile, int minSamples, long minNanos) {
+        this.percentile = percentile;
+        this.minSamples = Math.min(minSamples, SIZE);
+        this.minNanos = minNanos;
+    }
+
+    synchronized void record(long nanos) {
+        samples[position] = nanos;
+        position = (position + 1) % SIZE;
+        if (count < SIZE) {
+            count++;
+        }
+        if (count >= minSamples && position % RECOMPUTE_EVERY == 0) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            percentileNanos = Math.max(minNanos, sorted[(int) Math.min(count - 1, Math.ceil(percentile * count) - 1)]);
+        }
+    }
+
+    /**
+     * @return перцентиль задержки или -1, если ответов пока слишком мало
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+}
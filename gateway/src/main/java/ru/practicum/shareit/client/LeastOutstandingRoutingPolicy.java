@@ -0,0 +1,32 @@
+package ru.practicum.shareit.client;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * «Два случайных выбора»: из двух случайных экземпляров берётся тот, у которого меньше запросов
+ * в полёте с учётом веса медленного старта. Для двух экземпляров это просто наименее загруженный.
+ */
+public class LeastOutstandingRoutingPolicy implements RoutingPolicy {
+
+    @Override
+    public ServerInstance choose(ServerCall call, List<ServerInstance> candidates, long nowNanos) {
+        int size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServerInstance a = candidates.get(first);
+        ServerInstance b = candidates.get(second);
+        return score(a, nowNanos) <= score(b, nowNanos) ? a : b;
+    }
+
+    private static double score(ServerInstance instance, long nowNanos) {
+        return (instance.getOutstanding() + 1) / instance.weight(nowNanos);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.server")
+public class LoadBalancerProperties {
+    /**
+     * Адрес единственного экземпляра сервера; используется, если {@link #urls} не заданы.
+     */
+    private String url;
+
+    /**
+     * Адреса экземпляров сервера, между которыми распределяются запросы.
+     */
+    private List<String> urls = new ArrayList<>();
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    private String healthCheckPath = "/actuator/health";
+
+    /**
+     * После стольких ошибок подряд (исключение или 5xx) экземпляр исключается из балансировки.
+     */
+    private int ejectionThreshold = 5;
+
+    private Duration ejectionDuration = Duration.ofSeconds(30);
+
+    /**
+     * За это время вернувшийся экземпляр плавно выходит на полную долю запросов.
+     */
+    private Duration slowStart = Duration.ofSeconds(30);
+
+    private Routing routing = Routing.LEAST_OUTSTANDING;
+
+    /**
+     * Виртуальных узлов на экземпляр для {@link Routing#CONSISTENT_HASH}.
+     */
+    private int virtualNodes = 160;
+
+    public List<String> instanceUrls() {
+        return urls.isEmpty() ? List.of(url) : urls;
+    }
+
+    public enum Routing {
+        /**
+         * Два случайных выбора по числу запросов в полёте.
+         */
+        LEAST_OUTSTANDING,
+        /**
+         * Консистентное хеширование по X-Sharer-User-Id, для вещей — по id вещи.
+         */
+        CONSISTENT_HASH
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Распределяет запросы клиента между экземплярами сервера. Если доступных экземпляров
+ * не осталось, запросы идут на все: отказ всех проверок чаще означает сбой самих проверок.
+ */
+public class LoadBalancingServerTransport implements ServerTransport {
+    private final List<ServerInstance> instances;
+    private final Map<ServerInstance, ServerTransport> transports;
+    private final RoutingPolicy routingPolicy;
+    private final Map<ServerInstance, Counter> requests = new HashMap<>();
+
+    public LoadBalancingServerTransport(Map<ServerInstance, ServerTransport> transports, RoutingPolicy routingPolicy,
+                                        String name, MeterRegistry meterRegistry) {
+        this.instances = List.copyOf(transports.keySet());
+        this.transports = transports;
+        this.routingPolicy = routingPolicy;
+        for (ServerInstance instance : instances) {
+            requests.put(instance, meterRegistry.counter("shareit.server.instance.requests",
+                    "client", name, "instance", instance.getUrl()));
+        }
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(ServerCall call) {
+        long now = System.nanoTime();
+        List<ServerInstance> candidates = new ArrayList<>(instances.size());
+        for (ServerInstance instance : instances) {
+            if (instance.isAvailable(now)) {
+                candidates.add(instance);
+            }
+        }
+        ServerInstance instance = routingPolicy.choose(call, candidates.isEmpty() ? instances : candidates, now);
+        requests.get(instance).increment();
+
+        instance.onStart();
+        CompletableFuture<ResponseEntity<Object>> response;
+        try {
+            response = transports.get(instance).exchange(call);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.whenComplete((entity, e) ->
+                instance.onComplete(e != null || entity.getStatusCode().is5xxServerError()));
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Сервер, работающий в том же процессе, что и gateway. Если такой бин есть, клиенты обращаются
+ * к нему напрямую, без HTTP. Ответ и ошибки те же, что вернул бы сервер по сети: статус, заголовки
+ * и тело в JSON.
+ */
+public interface LocalServer {
+
+    /**
+     * @param apiPrefix префикс API клиента, к которому относится путь запроса
+     */
+    CompletableFuture<ResponseEntity<Object>> exchange(String apiPrefix, ServerCall call);
+}
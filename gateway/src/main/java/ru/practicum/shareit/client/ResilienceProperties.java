@@ -0,0 +1,55 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.client.resilience")
+public class ResilienceProperties {
+    private boolean enabled = true;
+
+    /**
+     * Настройки по имени клиента ({@code items}, {@code bookings}, {@code users}, {@code requests});
+     * для отсутствующих используются значения по умолчанию.
+     */
+    private Map<String, Settings> clients = new HashMap<>();
+
+    public Settings forClient(String name) {
+        return clients.getOrDefault(name, new Settings());
+    }
+
+    @Data
+    public static class Settings {
+        /**
+         * Сколько запросов клиента может одновременно ждать ответа сервера.
+         */
+        private int maxConcurrentCalls = 50;
+
+        /**
+         * По скольким последним вызовам считаются доли ошибок и медленных ответов.
+         */
+        private int slidingWindowSize = 50;
+
+        /**
+         * Меньше вызовов в окне — автомат не размыкается.
+         */
+        private int minimumCalls = 20;
+
+        private int failureRateThreshold = 50;
+
+        private int slowCallRateThreshold = 80;
+
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+
+        /**
+         * Сколько автомат остаётся разомкнутым перед пробными вызовами.
+         */
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        private int halfOpenCalls = 5;
+    }
+}
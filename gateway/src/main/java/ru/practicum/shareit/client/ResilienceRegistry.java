@@ -0,0 +1,49 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Ограничители одновременных вызовов и автоматы отключения по клиентам gateway.
+ */
+@Component
+public class ResilienceRegistry {
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+
+    public ResilienceRegistry(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Guard guard(String name) {
+        return guards.computeIfAbsent(name, this::createGuard);
+    }
+
+    public Map<String, Guard> guards() {
+        return Map.copyOf(guards);
+    }
+
+    private Guard createGuard(String name) {
+        ResilienceProperties.Settings settings = properties.forClient(name);
+        Guard guard = new Guard(new Semaphore(settings.getMaxConcurrentCalls()), settings.getMaxConcurrentCalls(),
+                new CircuitBreaker(settings));
+        Gauge.builder("shareit.client.bulkhead.available", guard.bulkhead(), Semaphore::availablePermits)
+                .tag("client", name)
+                .register(meterRegistry);
+        Gauge.builder("shareit.client.circuit.state", guard.circuitBreaker(), breaker -> breaker.getState().ordinal())
+                .description("0 — замкнут, 1 — разомкнут, 2 — пробные вызовы")
+                .tag("client", name)
+                .register(meterRegistry);
+        return guard;
+    }
+
+    public record Guard(Semaphore bulkhead, int maxConcurrentCalls, CircuitBreaker circuitBreaker) {
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Не даёт медленному маршруту занять все потоки gateway: ограничивает число одновременных
+ * вызовов клиента и сразу отказывает, пока автомат клиента разомкнут. Ошибкой считаются
+ * исключения транспорта и ответы 5xx.
+ */
+public class ResilientServerTransport implements ServerTransport {
+    private final ServerTransport delegate;
+    private final String name;
+    private final ResilienceRegistry.Guard guard;
+    private final Counter bulkheadRejected;
+    private final Counter circuitRejected;
+
+    public ResilientServerTransport(ServerTransport delegate, String name, ResilienceRegistry.Guard guard,
+                                    MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.name = name;
+        this.guard = guard;
+        this.bulkheadRejected = meterRegistry.counter("shareit.client.rejected", "client", name, "reason", "bulkhead");
+        this.circuitRejected = meterRegistry.counter("shareit.client.rejected", "client", name, "reason", "circuit_open");
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(ServerCall call) {
+        if (!guard.bulkhead().tryAcquire()) {
+            bulkheadRejected.increment();
+            return CompletableFuture.failedFuture(
+                    new ServerUnavailableException("Слишком много одновременных запросов к " + name));
+        }
+        if (!guard.circuitBreaker().tryAcquire()) {
+            guard.bulkhead().release();
+            circuitRejected.increment();
+            return CompletableFuture.failedFuture(
+                    new ServerUnavailableException("Сервис " + name + " временно недоступен"));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<ResponseEntity<Object>> response;
+        try {
+            response = delegate.exchange(call);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.whenComplete((entity, e) -> {
+            guard.bulkhead().release();
+            boolean failed = e != null || entity.getStatusCode().is5xxServerError();
+            guard.circuitBreaker().onComplete(failed, System.nanoTime() - start);
+        });
+    }
+}
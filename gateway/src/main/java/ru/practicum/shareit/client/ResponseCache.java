@@ -0,0 +1,75 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Кэш ответов сервера на GET-запросы, общий для всех клиентов gateway.
+ * Ключ — полный путь ресурса и {@code X-Sharer-User-Id}.
+ */
+@Component
+public class ResponseCache {
+    private final Cache<Key, Entry> cache;
+    private final long freshForNanos;
+
+    public ResponseCache(CacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+        this.freshForNanos = properties.getFreshFor().toNanos();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayResponses");
+    }
+
+    @Nullable
+    Entry get(String path, @Nullable Long userId) {
+        return cache.getIfPresent(new Key(path, userId));
+    }
+
+    void put(String path, @Nullable Long userId, Entry entry) {
+        cache.put(new Key(path, userId), entry);
+    }
+
+    void remove(String path, @Nullable Long userId) {
+        cache.invalidate(new Key(path, userId));
+    }
+
+    /**
+     * Удаляет ответы ресурса {@code path} и вложенных в него ресурсов для всех пользователей.
+     */
+    public void evict(String path) {
+        cache.asMap().keySet().removeIf(key -> key.path().equals(path) || isNested(path, key.path()));
+    }
+
+    /**
+     * Удаляет ответы ресурсов, внутри которых находится {@code path}: запись в {@code /items/1/comment}
+     * меняет ответ на {@code /items/1}.
+     */
+    void evictEnclosing(String path) {
+        cache.asMap().keySet().removeIf(key -> key.path().equals(path) || isNested(key.path(), path));
+    }
+
+    boolean isFresh(Entry entry) {
+        return System.nanoTime() - entry.validatedAtNanos() < freshForNanos;
+    }
+
+    private static boolean isNested(String parent, String path) {
+        return path.length() > parent.length() && path.startsWith(parent) && path.charAt(parent.length()) == '/';
+    }
+
+    private record Key(String path, @Nullable Long userId) {
+    }
+
+    record Entry(Object body, HttpHeaders headers, String etag, long validatedAtNanos) {
+
+        Entry revalidated() {
+            return new Entry(body, headers, etag, System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Блокирующий транспорт: запрос выполняется в вызывающем потоке, возвращается уже завершённый future.
+ * Время ожидания ответа ограничивается сроком из {@link CallTimeout}.
+ */
+public class RestTemplateServerTransport implements ServerTransport {
+    private final RestTemplate rest;
+    private final boolean passthrough;
+    private final MediaType wireType;
+
+    public RestTemplateServerTransport(RestTemplate rest, boolean passthrough, MediaType wireType) {
+        this.rest = rest;
+        this.passthrough = passthrough;
+        this.wireType = wireType;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(ServerCall call) {
+        try {
+            return CompletableFuture.completedFuture(send(call));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private ResponseEntity<Object> send(ServerCall call) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(call.body(), ServerResponses.requestHeaders(call, wireType));
+        Class<?> responseType = passthrough ? byte[].class : Object.class;
+
+        long timeoutMillis = CallTimeout.millis(call);
+        if (timeoutMillis > 0) {
+            CallTimeout.bind(timeoutMillis);
+        }
+        ResponseEntity<?> shareitServerResponse;
+        try {
+            shareitServerResponse = rest.exchange(call.path(), call.method(), requestEntity, responseType,
+                    call.uriVariables());
+        } catch (HttpStatusCodeException e) {
+            return ServerResponses.errorResponse(e.getStatusCode(), e.getResponseBodyAsByteArray());
+        } finally {
+            CallTimeout.clear();
+        }
+        return ServerResponses.gatewayResponse(shareitServerResponse, passthrough);
+    }
+}
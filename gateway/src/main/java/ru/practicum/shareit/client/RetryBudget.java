@@ -0,0 +1,50 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Общий для всех клиентов бюджет дополнительных попыток: каждый запрос пополняет его на
+ * {@code budget-ratio}, каждая дублирующая или повторная попытка расходует единицу. При отказе
+ * сервера бюджет быстро исчерпывается, и gateway не умножает нагрузку на него.
+ */
+@Component
+public class RetryBudget {
+    private static final long SCALE = 1000;
+
+    private final AtomicLong balance;
+    private final long deposit;
+    private final long max;
+
+    public RetryBudget(HedgingProperties properties) {
+        this.deposit = Math.round(properties.getBudgetRatio() * SCALE);
+        this.max = properties.getBudgetMax() * SCALE;
+        this.balance = new AtomicLong(max);
+    }
+
+    public void deposit() {
+        while (true) {
+            long current = balance.get();
+            if (current >= max || balance.compareAndSet(current, Math.min(max, current + deposit))) {
+                return;
+            }
+        }
+    }
+
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    public double available() {
+        return (double) balance.get() / SCALE;
+    }
+}
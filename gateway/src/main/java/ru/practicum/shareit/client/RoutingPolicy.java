@@ -0,0 +1,13 @@
+package ru.practicum.shareit.client;
+
+import java.util.List;
+
+/**
+ * Выбор экземпляра сервера для запроса.
+ */
+public interface RoutingPolicy {
+    /**
+     * @param candidates доступные экземпляры, не пустой список
+     */
+    ServerInstance choose(ServerCall call, List<ServerInstance> candidates, long nowNanos);
+}
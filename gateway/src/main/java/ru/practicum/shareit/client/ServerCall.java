@@ -0,0 +1,57 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+
+/**
+ * Запрос gateway к серверу. Путь указывается относительно префикса API клиента
+ * и может содержать переменные шаблона из {@code parameters}.
+ *
+ * @param headers       дополнительные заголовки поверх стандартных
+ * @param cacheable     ответ можно хранить в кэше gateway
+ * @param deadlineNanos срок запроса по {@link System#nanoTime()} или {@code null}, если он не ограничен
+ */
+public record ServerCall(HttpMethod method,
+                         String path,
+                         @Nullable Long userId,
+                         @Nullable Map<String, Object> parameters,
+                         @Nullable Object body,
+                         HttpHeaders headers,
+                         boolean cacheable,
+                         @Nullable Long deadlineNanos) {
+
+    public ServerCall(HttpMethod method, String path, @Nullable Long userId,
+                      @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        this(method, path, userId, parameters, body, HttpHeaders.EMPTY, false, null);
+    }
+
+    public Map<String, Object> uriVariables() {
+        return parameters != null ? parameters : Map.of();
+    }
+
+    public ServerCall withHeader(String name, String value) {
+        HttpHeaders copy = new HttpHeaders();
+        copy.addAll(headers);
+        copy.set(name, value);
+        return new ServerCall(method, path, userId, parameters, body, HttpHeaders.readOnlyHttpHeaders(copy), cacheable,
+                deadlineNanos);
+    }
+
+    public ServerCall asCacheable() {
+        return new ServerCall(method, path, userId, parameters, body, headers, true, deadlineNanos);
+    }
+
+    public ServerCall withDeadline(long deadlineNanos) {
+        return new ServerCall(method, path, userId, parameters, body, headers, cacheable, deadlineNanos);
+    }
+
+    /**
+     * @return оставшееся до срока время в наносекундах или {@link Long#MAX_VALUE}, если срока нет
+     */
+    public long remainingNanos() {
+        return deadlineNanos == null ? Long.MAX_VALUE : deadlineNanos - System.nanoTime();
+    }
+}
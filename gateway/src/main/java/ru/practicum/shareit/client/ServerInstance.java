@@ -0,0 +1,86 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Экземпляр сервера и его состояние, общее для всех клиентов gateway: число запросов в полёте,
+ * результат активной проверки и пассивное исключение после ошибок подряд.
+ */
+public class ServerInstance {
+    private static final double MIN_WEIGHT = 0.1;
+
+    private final String url;
+    private final LoadBalancerProperties properties;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile boolean healthy = true;
+    private volatile long ejectedUntilNanos;
+    private volatile long recoveredAtNanos;
+
+    public ServerInstance(String url, LoadBalancerProperties properties) {
+        this.url = url;
+        this.properties = properties;
+        long now = System.nanoTime();
+        this.ejectedUntilNanos = now;
+        this.recoveredAtNanos = now - properties.getSlowStart().toNanos();
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public boolean isAvailable(long nowNanos) {
+        return healthy && nowNanos - ejectedUntilNanos >= 0;
+    }
+
+    /**
+     * Доля запросов относительно полностью прогретого экземпляра: растёт от 0.1 до 1
+     * за {@code slow-start} после возвращения в балансировку.
+     */
+    public double weight(long nowNanos) {
+        long slowStart = properties.getSlowStart().toNanos();
+        long sinceRecovery = nowNanos - recoveredAtNanos;
+        if (slowStart <= 0 || sinceRecovery >= slowStart) {
+            return 1;
+        }
+        return Math.max(MIN_WEIGHT, (double) sinceRecovery / slowStart);
+    }
+
+    public void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    public void onComplete(boolean failed) {
+        outstanding.decrementAndGet();
+        if (!failed) {
+            consecutiveFailures.set(0);
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= properties.getEjectionThreshold()) {
+            consecutiveFailures.set(0);
+            long until = System.nanoTime() + properties.getEjectionDuration().toNanos();
+            ejectedUntilNanos = until;
+            recoveredAtNanos = until;
+        }
+    }
+
+    void onHealthCheck(boolean up) {
+        if (up && !healthy) {
+            recoveredAtNanos = System.nanoTime();
+        }
+        healthy = up;
+    }
+
+    boolean isHealthy() {
+        return healthy;
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+/**
+ * Экземпляры сервера из {@code shareit.server.urls} с периодической проверкой их
+ * {@code /actuator/health}.
+ */
+@Slf4j
+@Component
+public class ServerInstances {
+    private final List<ServerInstance> instances;
+    private final LoadBalancerProperties properties;
+    private final RestTemplate healthCheckClient;
+
+    public ServerInstances(LoadBalancerProperties properties, RestTemplateBuilder restTemplateBuilder,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.instances = properties.instanceUrls().stream()
+                .map(url -> new ServerInstance(url, properties))
+                .toList();
+        this.healthCheckClient = restTemplateBuilder
+                .setConnectTimeout(properties.getHealthCheckTimeout())
+                .setReadTimeout(properties.getHealthCheckTimeout())
+                .build();
+
+        for (ServerInstance instance : instances) {
+            Gauge.builder("shareit.server.instance.outstanding", instance, ServerInstance::getOutstanding)
+                    .tag("instance", instance.getUrl())
+                    .register(meterRegistry);
+            Gauge.builder("shareit.server.instance.available", instance,
+                            i -> i.isAvailable(System.nanoTime()) ? 1 : 0)
+                    .tag("instance", instance.getUrl())
+                    .register(meterRegistry);
+        }
+    }
+
+    public List<ServerInstance> all() {
+        return instances;
+    }
+
+    public boolean isBalanced() {
+        return instances.size() > 1;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.server.health-check-interval:PT5S}")
+    public void checkHealth() {
+        if (!isBalanced()) {
+            return;
+        }
+        for (ServerInstance instance : instances) {
+            boolean up;
+            try {
+                healthCheckClient.getForEntity(instance.getUrl() + properties.getHealthCheckPath(), String.class);
+                up = true;
+            } catch (RestClientException e) {
+                up = false;
+            }
+            if (up != instance.isHealthy()) {
+                log.info("Экземпляр сервера {} {}", instance, up ? "снова доступен" : "не прошёл проверку");
+            }
+            instance.onHealthCheck(up);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Общие для всех {@link ServerTransport} правила формирования запроса к серверу и ответа gateway.
+ */
+final class ServerResponses {
+    private static final List<String> PASSTHROUGH_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG,
+            "X-Next-Cursor");
+
+    private ServerResponses() {
+    }
+
+    static HttpHeaders requestHeaders(ServerCall call, MediaType wireType) {
+        HttpHeaders headers = defaultHeaders(call.userId(), wireType);
+        headers.putAll(call.headers());
+        return headers;
+    }
+
+    static HttpHeaders defaultHeaders(Long userId, MediaType wireType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(wireType);
+        headers.setAccept(List.of(wireType));
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        return headers;
+    }
+
+    static ResponseEntity<Object> errorResponse(HttpStatusCode status, byte[] body) {
+        if (body == null) {
+            return ResponseEntity.status(status).body(new byte[0]);
+        }
+        return ResponseEntity.status(status).body(SmileTranscoder.isSmile(body) ? SmileTranscoder.toJson(body) : body);
+    }
+
+    static ResponseEntity<Object> gatewayResponse(ResponseEntity<?> response, boolean passthrough) {
+        return passthrough ? preparePassthroughResponse(response) : prepareGatewayResponse(response);
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<?> response) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(response.getHeaders());
+            if (ClientProperties.WireFormat.SMILE.mediaType().isCompatibleWith(headers.getContentType())) {
+                // Тело уже разобрано из Smile и будет записано клиенту заново как JSON.
+                headers.setContentType(MediaType.APPLICATION_JSON);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+            }
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(headers)
+                    .body(response.getBody());
+        }
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+
+        if (response.hasBody()) {
+            return responseBuilder.body(response.getBody());
+        }
+
+        return responseBuilder.build();
+    }
+
+    private static ResponseEntity<Object> preparePassthroughResponse(ResponseEntity<?> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        for (String header : PASSTHROUGH_HEADERS) {
+            List<String> values = response.getHeaders().get(header);
+            if (values != null) {
+                responseBuilder.header(header, values.toArray(String[]::new));
+            }
+        }
+
+        if (response.hasBody()) {
+            return responseBuilder.body(response.getBody());
+        }
+
+        return responseBuilder.build();
+    }
+}
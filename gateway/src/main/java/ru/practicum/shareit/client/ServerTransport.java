@@ -0,0 +1,14 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Способ доставки запроса gateway до сервера.
+ * Ошибки сервера (4xx, 5xx) не выбрасываются, а возвращаются ответом с тем же статусом.
+ */
+public interface ServerTransport {
+
+    CompletableFuture<ResponseEntity<Object>> exchange(ServerCall call);
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Создаёт транспорт до сервера для клиента с заданным префиксом API
+ * в соответствии с настройкой {@code shareit.client.transport}. При нескольких экземплярах
+ * сервера запросы распределяются между ними, а сервер в том же процессе ({@link LocalServer})
+ * вызывается напрямую.
+ */
+@Component
+public class ServerTransportFactory {
+    private final ObjectProvider<LocalServer> localServer;
+    private final ServerInstances serverInstances;
+    private final LoadBalancerProperties loadBalancerProperties;
+    private final ClientProperties properties;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final ClientHttpRequestFactory shareItRequestFactory;
+    private final WebClient.Builder webClientBuilder;
+    private final ObjectProvider<ClientHttpConnector> shareItReactiveConnector;
+    private final CacheProperties cacheProperties;
+    private final ResponseCache responseCache;
+    private final ResilienceProperties resilienceProperties;
+    private final ResilienceRegistry resilienceRegistry;
+    private final HedgingProperties hedgingProperties;
+    private final RetryBudget retryBudget;
+    private final DeadlineProperties deadlineProperties;
+    private final MeterRegistry meterRegistry;
+
+    public ServerTransportFactory(ObjectProvider<LocalServer> localServer,
+                                  ServerInstances serverInstances,
+                                  LoadBalancerProperties loadBalancerProperties,
+                                  ClientProperties properties,
+                                  RestTemplateBuilder restTemplateBuilder,
+                                  ClientHttpRequestFactory shareItRequestFactory,
+                                  WebClient.Builder webClientBuilder,
+                                  ObjectProvider<ClientHttpConnector> shareItReactiveConnector,
+                                  CacheProperties cacheProperties,
+                                  ResponseCache responseCache,
+                                  ResilienceProperties resilienceProperties,
+                                  ResilienceRegistry resilienceRegistry,
+                                  HedgingProperties hedgingProperties,
+                                  RetryBudget retryBudget,
+                                  DeadlineProperties deadlineProperties,
+                                  MeterRegistry meterRegistry) {
+        this.localServer = localServer;
+        this.serverInstances = serverInstances;
+        this.loadBalancerProperties = loadBalancerProperties;
+        this.properties = properties;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.shareItRequestFactory = shareItRequestFactory;
+        this.webClientBuilder = webClientBuilder;
+        this.shareItReactiveConnector = shareItReactiveConnector;
+        this.cacheProperties = cacheProperties;
+        this.responseCache = responseCache;
+        this.resilienceProperties = resilienceProperties;
+        this.resilienceRegistry = resilienceRegistry;
+        this.hedgingProperties = hedgingProperties;
+        this.retryBudget = retryBudget;
+        this.deadlineProperties = deadlineProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ServerTransport create(String apiPrefix) {
+        String name = apiPrefix.substring(1);
+        ServerTransport transport = createBalancedTransport(name, apiPrefix);
+        if (resilienceProperties.isEnabled()) {
+            transport = new ResilientServerTransport(transport, name, resilienceRegistry.guard(name), meterRegistry);
+        }
+        if (deadlineProperties.isEnabled()) {
+            transport = DeadlineServerTransport.perAttempt(transport);
+        }
+        if (hedgingProperties.isEnabled()) {
+            transport = new HedgingServerTransport(transport, name, hedgingProperties, retryBudget, meterRegistry);
+        }
+        if (deadlineProperties.isEnabled()) {
+            transport = new DeadlineServerTransport(transport, name, deadlineProperties.forClient(name), meterRegistry);
+        }
+        if (properties.isCoalesce()) {
+            transport = new CoalescingServerTransport(transport, name, meterRegistry);
+        }
+        if (cacheProperties.isEnabled()) {
+            transport = new CachingServerTransport(transport, apiPrefix, responseCache, meterRegistry);
+        }
+        return transport;
+    }
+
+    private ServerTransport createBalancedTransport(String name, String apiPrefix) {
+        LocalServer local = localServer.getIfAvailable();
+        if (local != null) {
+            return call -> local.exchange(apiPrefix, call);
+        }
+        if (!serverInstances.isBalanced()) {
+            return createNetworkTransport(serverInstances.all().get(0).getUrl(), apiPrefix);
+        }
+        Map<ServerInstance, ServerTransport> transports = new LinkedHashMap<>();
+        for (ServerInstance instance : serverInstances.all()) {
+            transports.put(instance, createNetworkTransport(instance.getUrl(), apiPrefix));
+        }
+        return new LoadBalancingServerTransport(transports, routingPolicy(apiPrefix), name, meterRegistry);
+    }
+
+    private RoutingPolicy routingPolicy(String apiPrefix) {
+        RoutingPolicy leastOutstanding = new LeastOutstandingRoutingPolicy();
+        if (loadBalancerProperties.getRouting() == LoadBalancerProperties.Routing.CONSISTENT_HASH) {
+            return new ConsistentHashRoutingPolicy(serverInstances.all(), loadBalancerProperties.getVirtualNodes(),
+                    apiPrefix.equals("/items"), leastOutstanding);
+        }
+        return leastOutstanding;
+    }
+
+    private ServerTransport createNetworkTransport(String serverUrl, String apiPrefix) {
+        DefaultUriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory(serverUrl + apiPrefix);
+
+        if (properties.getTransport() == ClientProperties.Transport.REACTIVE) {
+            WebClient webClient = webClientBuilder.clone()
+                    .uriBuilderFactory(uriBuilderFactory)
+                    .clientConnector(shareItReactiveConnector.getObject())
+                    .build();
+            return new WebClientServerTransport(webClient, properties.isPassthrough(),
+                    properties.serverMediaType());
+        }
+
+        return new RestTemplateServerTransport(restTemplateBuilder
+                .uriTemplateHandler(uriBuilderFactory)
+                .requestFactory(() -> shareItRequestFactory)
+                .build(), properties.isPassthrough(), properties.serverMediaType());
+    }
+}
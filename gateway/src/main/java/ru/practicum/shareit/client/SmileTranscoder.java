@@ -0,0 +1,43 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Перекодирует тела ошибок сервера из Smile в JSON потоково, без построения объектов. Успешные ответы
+ * в Smile разбирает сам {@link org.springframework.web.client.RestTemplate}; в режиме passthrough Smile
+ * не используется.
+ */
+final class SmileTranscoder {
+    private static final SmileFactory SMILE = new SmileFactory();
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private SmileTranscoder() {
+    }
+
+    /**
+     * Smile-документ начинается с заголовка {@code :)\n}, который Jackson пишет по умолчанию.
+     */
+    static boolean isSmile(byte[] body) {
+        return body.length >= 3 && body[0] == ':' && body[1] == ')' && body[2] == '\n';
+    }
+
+    static byte[] toJson(byte[] smile) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(smile.length * 2);
+        try (JsonParser parser = SMILE.createParser(smile);
+             JsonGenerator generator = JSON.createGenerator(out)) {
+            if (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
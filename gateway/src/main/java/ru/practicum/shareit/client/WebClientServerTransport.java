@@ -0,0 +1,53 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClientRequest;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Неблокирующий транспорт на {@link WebClient}: ожидание ответа сервера не занимает поток,
+ * запросы обслуживаются несколькими потоками event loop Reactor Netty. Время ожидания ответа
+ * ограничивается сроком из {@link CallTimeout}.
+ */
+public class WebClientServerTransport implements ServerTransport {
+    private final WebClient webClient;
+    private final boolean passthrough;
+    private final MediaType wireType;
+
+    public WebClientServerTransport(WebClient webClient, boolean passthrough, MediaType wireType) {
+        this.webClient = webClient;
+        this.passthrough = passthrough;
+        this.wireType = wireType;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(ServerCall call) {
+        Class<?> responseType = passthrough ? byte[].class : Object.class;
+
+        WebClient.RequestBodySpec request = webClient.method(call.method())
+                .uri(call.path(), call.uriVariables())
+                .headers(headers -> headers.addAll(ServerResponses.requestHeaders(call, wireType)));
+        long timeoutMillis = CallTimeout.millis(call);
+        if (timeoutMillis > 0) {
+            request.httpRequest(httpRequest -> {
+                HttpClientRequest nativeRequest = httpRequest.getNativeRequest();
+                nativeRequest.responseTimeout(Duration.ofMillis(timeoutMillis));
+            });
+        }
+        if (call.body() != null) {
+            request.bodyValue(call.body());
+        }
+
+        return request
+                .exchangeToMono(response -> response.statusCode().isError()
+                        ? response.toEntity(byte[].class)
+                                .map(entity -> ServerResponses.errorResponse(entity.getStatusCode(), entity.getBody()))
+                        : response.toEntity(responseType)
+                                .map(entity -> ServerResponses.gatewayResponse(entity, passthrough)))
+                .toFuture();
+    }
+}
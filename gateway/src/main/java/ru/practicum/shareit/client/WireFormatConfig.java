@@ -0,0 +1,30 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Smile нужен только клиентам gateway → server ({@code shareit.client.wire-format=smile}):
+ * конвертер доступен {@link org.springframework.web.client.RestTemplate}, но убран из Spring MVC,
+ * чтобы публичный API gateway оставался JSON.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(MappingJackson2SmileHttpMessageConverter.class::isInstance);
+    }
+}
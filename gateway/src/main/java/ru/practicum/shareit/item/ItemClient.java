@@ -1,34 +1,42 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
-import ru.practicum.shareit.item.dto.CommentDto;
-import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransportFactory;
+import ru.practicum.shareit.item.dto.CommentInputDto;
+import ru.practicum.shareit.item.dto.ItemInputDto;
+
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    private final ResponseCache responseCache;
+
     @Autowired
-    public ItemClient(@Value("${shareit.server.url}") String serverUrl, RestTemplateBuilder restTemplate) {
-        super(restTemplate
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build());
+    public ItemClient(ServerTransportFactory transportFactory, ResponseCache responseCache) {
+        super(transportFactory.create(API_PREFIX));
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> addItem(Long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public ResponseEntity<Object> addItem(Long userId, ItemInputDto itemDto) {
+        ResponseEntity<Object> response = post("", userId, itemDto);
+        if (itemDto.getRequestId() != null) {
+            responseCache.evict("/requests/" + itemDto.getRequestId());
+        }
+        return response;
     }
 
     public ResponseEntity<Object> getItem(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+        return getCacheable("/" + itemId, userId);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getItemAsync(Long userId, Long itemId) {
+        return getCacheableAsync("/" + itemId, userId);
     }
 
     public ResponseEntity<Object> getAllItems(Long userId) {
@@ -39,11 +47,17 @@ public class ItemClient extends BaseClient {
         return get("?text=" + text);
     }
 
-    public ResponseEntity<Object> patchItem(Long userId, Long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+    /**
+     * Ответ на {@code /requests/{id}} содержит вещи, добавленные по запросу, а тело PATCH обычно не знает
+     * {@code requestId}, поэтому изменение вещи удаляет из кэша все ответы на запросы.
+     */
+    public ResponseEntity<Object> patchItem(Long userId, Long itemId, ItemInputDto itemDto) {
+        ResponseEntity<Object> response = patch("/" + itemId, userId, itemDto);
+        responseCache.evict("/requests");
+        return response;
     }
 
-    public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
+    public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentInputDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
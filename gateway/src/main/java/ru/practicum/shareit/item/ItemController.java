@@ -6,8 +6,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.shareit.item.dto.CommentDto;
-import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.CommentInputDto;
+import ru.practicum.shareit.item.dto.ItemInputDto;
 
 @Controller
 @RequestMapping("/items")
@@ -15,10 +15,11 @@ import ru.practicum.shareit.item.dto.ItemDto;
 @Validated
 public class ItemController {
     private final ItemClient itemClient;
+    private final ItemPageService itemPageService;
 
     @PostMapping
     public ResponseEntity<Object> addItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                          @RequestBody ItemDto itemDto) {
+                                          @RequestBody ItemInputDto itemDto) {
         return itemClient.addItem(userId, itemDto);
     }
 
@@ -28,10 +29,16 @@ public class ItemController {
         return itemClient.getItem(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/page")
+    public ResponseEntity<Object> getItemPage(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @PathVariable Long itemId) {
+        return itemPageService.getItemPage(userId, itemId);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> patchItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                                            @PathVariable Long itemId,
-                                           @RequestBody ItemDto itemDto) {
+                                           @RequestBody ItemInputDto itemDto) {
         return itemClient.patchItem(userId, itemId, itemDto);
     }
 
@@ -48,7 +55,7 @@ public class ItemController {
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
                                              @PathVariable Long itemId,
-                                             @RequestBody CommentDto commentDto) {
+                                             @RequestBody CommentInputDto commentDto) {
         return itemClient.addComment(userId, itemId, commentDto);
     }
 }
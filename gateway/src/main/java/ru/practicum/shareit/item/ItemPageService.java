@@ -0,0 +1,135 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+import ru.practicum.shareit.item.dto.ItemPageDto;
+import ru.practicum.shareit.user.UserClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Собирает страницу вещи из параллельных запросов к серверу. Вещь и бронирования запрашиваются
+ * одновременно, владелец — сразу по получении вещи; всё ограничено общим сроком
+ * {@code shareit.item-page.deadline}. Бронирования — последние {@code shareit.item-page.bookings-size}
+ * бронирований пользователя этой вещи, отобранные сервером. Без вещи страница не отдаётся, остальные части
+ * при ошибке или по истечении срока попадают в {@link ItemPageDto#missing()}.
+ */
+@Slf4j
+@Service
+public class ItemPageService {
+    private final ItemClient itemClient;
+    private final UserClient userClient;
+    private final BookingClient bookingClient;
+    private final ObjectMapper objectMapper;
+    private final Duration deadline;
+    private final int bookingsSize;
+
+    public ItemPageService(ItemClient itemClient, UserClient userClient, BookingClient bookingClient,
+                           ObjectMapper objectMapper, @Value("${shareit.item-page.deadline:2s}") Duration deadline,
+                           @Value("${shareit.item-page.bookings-size:20}") int bookingsSize) {
+        this.itemClient = itemClient;
+        this.userClient = userClient;
+        this.bookingClient = bookingClient;
+        this.objectMapper = objectMapper;
+        this.deadline = deadline;
+        this.bookingsSize = bookingsSize;
+    }
+
+    public ResponseEntity<Object> getItemPage(long userId, long itemId) {
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+
+        CompletableFuture<ResponseEntity<Object>> item = itemClient.getItemAsync(userId, itemId);
+        CompletableFuture<ResponseEntity<Object>> bookings =
+                bookingClient.getItemBookingsByBookerAsync(userId, itemId, bookingsSize);
+        CompletableFuture<ResponseEntity<Object>> owner = item.thenCompose(response -> {
+            JsonNode ownerId = response.getStatusCode().is2xxSuccessful() ? toJson(response.getBody()).get("ownerId") : null;
+            return ownerId == null || ownerId.isNull()
+                    ? CompletableFuture.completedFuture(null)
+                    : userClient.getUserAsync(ownerId.asLong());
+        });
+
+        ResponseEntity<Object> itemResponse;
+        try {
+            itemResponse = item.get(remaining(deadlineNanos), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            cancel(item, owner, bookings);
+            throw new ServerUnavailableException("Не удалось получить вещь за " + deadline.toMillis() + " мс");
+        } catch (ExecutionException e) {
+            cancel(owner, bookings);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        if (!itemResponse.getStatusCode().is2xxSuccessful()) {
+            cancel(owner, bookings);
+            return itemResponse;
+        }
+
+        List<String> missing = new ArrayList<>();
+        JsonNode ownerNode = awaitPart("owner", owner, deadlineNanos, missing);
+        JsonNode bookingsNode = awaitPart("bookings", bookings, deadlineNanos, missing);
+        return ResponseEntity.ok(new ItemPageDto(toJson(itemResponse.getBody()), ownerNode, bookingsNode, missing));
+    }
+
+    @Nullable
+    private JsonNode awaitPart(String name, CompletableFuture<ResponseEntity<Object>> part, long deadlineNanos,
+                               List<String> missing) {
+        try {
+            ResponseEntity<Object> response = part.get(remaining(deadlineNanos), TimeUnit.NANOSECONDS);
+            if (response == null) {
+                return null;
+            }
+            if (response.getStatusCode().is2xxSuccessful()) {
+                return toJson(response.getBody());
+            }
+            log.debug("Часть {} страницы вещи вернулась со статусом {}", name, response.getStatusCode());
+        } catch (TimeoutException e) {
+            part.cancel(true);
+            log.debug("Часть {} страницы вещи не успела к сроку", name);
+        } catch (ExecutionException e) {
+            log.debug("Часть {} страницы вещи завершилась ошибкой", name, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        missing.add(name);
+        return null;
+    }
+
+    private JsonNode toJson(@Nullable Object body) {
+        try {
+            return body instanceof byte[] bytes ? objectMapper.readTree(bytes) : objectMapper.valueToTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long remaining(long deadlineNanos) {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    @SafeVarargs
+    private static void cancel(CompletableFuture<ResponseEntity<Object>>... futures) {
+        for (CompletableFuture<ResponseEntity<Object>> future : futures) {
+            future.cancel(true);
+        }
+    }
+}
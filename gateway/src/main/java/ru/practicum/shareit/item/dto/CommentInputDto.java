@@ -4,7 +4,7 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
 @Data
-public class CommentDto {
+public class CommentInputDto {
     @NotBlank
     private String text;
 }
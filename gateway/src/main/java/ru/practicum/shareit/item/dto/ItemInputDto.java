@@ -5,7 +5,7 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 @Data
-public class ItemDto {
+public class ItemInputDto {
 
     @NotBlank
     private String name;
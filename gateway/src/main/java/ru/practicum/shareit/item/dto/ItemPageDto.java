@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Данные страницы вещи: сама вещь, её владелец и бронирования этой вещи текущим пользователем.
+ * В {@code missing} перечислены части, которые не успели получить или получили с ошибкой.
+ */
+public record ItemPageDto(JsonNode item, JsonNode owner, JsonNode bookings, List<String> missing) {
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отклоняет с 429 запросы сверх лимита до того, как они дойдут до контроллеров и сервера.
+ * Клиент определяется по X-Sharer-User-Id, а без него — по адресу; адреса содержат '.' или ':'
+ * и не пересекаются с числовыми id.
+ */
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final byte[] TOO_MANY_REQUESTS =
+            "{\"error\":\"Превышен лимит запросов\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String clientKey = request.getHeader("X-Sharer-User-Id");
+        if (clientKey == null) {
+            clientKey = request.getRemoteAddr();
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(request.getRequestURI(), clientKey);
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(TOO_MANY_REQUESTS.length);
+        response.getOutputStream().write(TOO_MANY_REQUESTS);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+}
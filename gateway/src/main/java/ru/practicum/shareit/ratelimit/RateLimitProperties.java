@@ -0,0 +1,41 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = false;
+
+    /**
+     * Как часто удалять полностью восстановившиеся корзины.
+     */
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    /**
+     * Лимит для запросов, не попавших ни в один из {@link #routes}.
+     */
+    private Limit defaultLimit = new Limit();
+
+    /**
+     * Лимиты по префиксу пути; применяется первый подходящий.
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Limit {
+        private double permitsPerSecond = 50;
+        private int burst = 100;
+    }
+
+    @Data
+    public static class Route {
+        private String path;
+        private Limit limit = new Limit();
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Лимиты запросов по клиенту отдельно для каждого маршрута из {@link RateLimitProperties}.
+ */
+public class RateLimiter {
+    private final List<RouteLimiter> routes = new ArrayList<>();
+    private final RouteLimiter defaultRoute;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            routes.add(new RouteLimiter(route.getPath(), route.getLimit(), meterRegistry));
+        }
+        defaultRoute = new RouteLimiter("default", properties.getDefaultLimit(), meterRegistry);
+    }
+
+    /**
+     * @param path      путь запроса
+     * @param clientKey идентификатор клиента
+     * @return 0, если запрос пропущен, иначе через сколько наносекунд можно повторить
+     */
+    public long tryAcquire(String path, String clientKey) {
+        return route(path).tryAcquire(clientKey, System.nanoTime());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.rate-limit.sweep-interval:PT1M}")
+    public void removeIdleBuckets() {
+        long now = System.nanoTime();
+        for (RouteLimiter route : routes) {
+            route.removeFullBuckets(now);
+        }
+        defaultRoute.removeFullBuckets(now);
+    }
+
+    private RouteLimiter route(String path) {
+        for (RouteLimiter route : routes) {
+            if (path.startsWith(route.prefix)) {
+                return route;
+            }
+        }
+        return defaultRoute;
+    }
+
+    private static class RouteLimiter {
+        private final String prefix;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final Counter rejected;
+
+        RouteLimiter(String prefix, RateLimitProperties.Limit limit, MeterRegistry meterRegistry) {
+            this.prefix = prefix;
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / limit.getPermitsPerSecond());
+            this.toleranceNanos = intervalNanos * (Math.max(limit.getBurst(), 1) - 1);
+            this.rejected = meterRegistry.counter("shareit.ratelimit.rejected", "route", prefix);
+        }
+
+        long tryAcquire(String clientKey, long now) {
+            TokenBucket bucket = buckets.get(clientKey);
+            if (bucket == null) {
+                bucket = buckets.computeIfAbsent(clientKey, key -> new TokenBucket(now));
+            }
+            long wait = bucket.tryAcquire(now, intervalNanos, toleranceNanos);
+            if (wait > 0) {
+                rejected.increment();
+            }
+            return wait;
+        }
+
+        // Запрос, успевший взять токен из удаляемой корзины, может получить один лишний токен — это допустимо.
+        void removeFullBuckets(long now) {
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+}
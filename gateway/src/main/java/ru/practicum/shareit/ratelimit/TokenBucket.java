@@ -0,0 +1,39 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов в форме GCRA: всё состояние — одно «теоретическое время прибытия»
+ * следующего запроса, которое сдвигается CAS-ом без блокировок и без выделения памяти.
+ */
+class TokenBucket {
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long nowNanos) {
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return 0, если запрос пропущен, иначе сколько наносекунд ждать до следующего токена
+     */
+    long tryAcquire(long nowNanos, long intervalNanos, long toleranceNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - toleranceNanos - intervalNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Полная корзина ничем не отличается от новой, поэтому её можно выбросить.
+     */
+    boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
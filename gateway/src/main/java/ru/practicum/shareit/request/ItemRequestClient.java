@@ -1,28 +1,22 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
-import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.client.ServerTransportFactory;
+import ru.practicum.shareit.request.dto.ItemRequestInputDto;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit.server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build());
+    public ItemRequestClient(ServerTransportFactory transportFactory) {
+        super(transportFactory.create(API_PREFIX));
     }
 
-    public ResponseEntity<Object> addItemRequest(Long userId, ItemRequestDto itemRequestDto) {
+    public ResponseEntity<Object> addItemRequest(Long userId, ItemRequestInputDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
@@ -35,6 +29,6 @@ public class ItemRequestClient extends BaseClient {
     }
 
     public ResponseEntity<Object> getRequest(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+        return getCacheable("/" + requestId, userId);
     }
 }
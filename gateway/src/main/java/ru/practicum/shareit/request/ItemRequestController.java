@@ -5,7 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestInputDto;
 
 @Controller
 @RequestMapping("/requests")
@@ -15,7 +15,7 @@ public class ItemRequestController {
 
     @PostMapping
     public ResponseEntity<Object> addItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @RequestBody @Valid ItemRequestDto itemRequestDto) {
+                                                 @RequestBody @Valid ItemRequestInputDto itemRequestDto) {
         return itemRequestClient.addItemRequest(userId, itemRequestDto);
     }
 
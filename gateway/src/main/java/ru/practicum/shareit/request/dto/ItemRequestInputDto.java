@@ -4,7 +4,7 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
 @Data
-public class ItemRequestDto {
+public class ItemRequestInputDto {
     @NotBlank
     private String description;
 }
@@ -1,36 +1,36 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
-import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.client.ServerTransportFactory;
+import ru.practicum.shareit.user.dto.UserInputDto;
+
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit.server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build());
+    public UserClient(ServerTransportFactory transportFactory) {
+        super(transportFactory.create(API_PREFIX));
     }
 
     public ResponseEntity<Object> getUser(Long userId) {
-        return get("/" + userId);
+        return getCacheable("/" + userId, null);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getUserAsync(Long userId) {
+        return getCacheableAsync("/" + userId, null);
     }
 
-    public ResponseEntity<Object> patchUser(UserDto userDto, Long userId) {
+    public ResponseEntity<Object> patchUser(UserInputDto userDto, Long userId) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> addUser(UserDto userDto) {
+    public ResponseEntity<Object> addUser(UserInputDto userDto) {
         return post("", userDto);
     }
 
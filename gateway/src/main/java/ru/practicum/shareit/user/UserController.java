@@ -5,7 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserInputDto;
 
 @Controller
 @RequestMapping(path = "/users")
@@ -20,12 +20,12 @@ public class UserController {
 
     @PatchMapping("/{userId}")
     public ResponseEntity<Object> patchUser(@PathVariable Long userId,
-                                            @RequestBody UserDto userDto) {
+                                            @RequestBody UserInputDto userDto) {
         return userClient.patchUser(userDto, userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> addUser(@RequestBody @Valid UserDto userDto) {
+    public ResponseEntity<Object> addUser(@RequestBody @Valid UserInputDto userDto) {
         return userClient.addUser(userDto);
     }
 
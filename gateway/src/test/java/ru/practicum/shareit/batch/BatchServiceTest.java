@@ -0,0 +1,33 @@
+package ru.practicum.shareit.batch;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class BatchServiceTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "/users, /users",
+            "/users/1, /users/1",
+            "//items/./2, /items/2",
+            "/bookings/owner?state=ALL&from=0, /bookings/owner?state=ALL&from=0",
+            "/items/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C, /items/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C",
+            "/requests/all/../1, /requests/1"
+    })
+    void normalizesAllowedPaths(String path, String expected) {
+        assertEquals(expected, BatchService.normalizePathAndQuery(path));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/batch", "//batch", "/./batch", "/users/../batch", "/actuator/health", "/actuator/env",
+            "/../users", "/users/%2e%2e/batch", "/users;x/../batch", "/users\\..\\batch", "/usersx", "users"
+    })
+    void rejectsPathsOutsideTheApi(String path) {
+        assertNull(BatchService.normalizePathAndQuery(path));
+    }
+}
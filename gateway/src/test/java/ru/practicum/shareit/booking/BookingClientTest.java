@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionInputDto;
+import ru.practicum.shareit.booking.dto.BookingBulkInputDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionInputDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.client.CacheProperties;
+import ru.practicum.shareit.client.CachingServerTransport;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCall;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.ServerTransportFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Создание и решение по бронированию удаляют из кэша gateway ответ на {@code /items/{itemId}}:
+ * в нём владелец видит последнее и следующее бронирования.
+ */
+public class BookingClientTest {
+    private static final ServerCall GET_ITEM = new ServerCall(HttpMethod.GET, "/2", 1L, null, null).asCacheable();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResponseCache cache = new ResponseCache(new CacheProperties(), meterRegistry);
+    private final AtomicInteger itemCalls = new AtomicInteger();
+    private final ServerTransport items = new CachingServerTransport(call -> {
+        itemCalls.incrementAndGet();
+        return CompletableFuture.completedFuture(ResponseEntity.ok().eTag("\"1\"").body((Object) Map.of("id", 2)));
+    }, "/items", cache, meterRegistry);
+    private final AtomicReference<Object> bookingsBody = new AtomicReference<>();
+    private final BookingClient client = client();
+
+    @Test
+    void addBookingEvictsItem() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingsBody.set(Map.of("id", 3, "item", Map.of("id", 2)));
+
+        assertItemEvictedBy(() -> client.addBooking(1L, new BookingInputDto(2L, start, start.plusDays(1))));
+        assertItemEvictedBy(() -> client.addBookings(1L,
+                new BookingBulkInputDto(List.of(new BookingInputDto(2L, start, start.plusDays(1))))));
+    }
+
+    @Test
+    void decisionEvictsItemFromResponse() {
+        bookingsBody.set(Map.of("id", 3, "item", Map.of("id", 2)));
+        assertItemEvictedBy(() -> client.patchBooking(5L, 3L, true));
+
+        bookingsBody.set("{\"id\":3,\"item\":{\"id\":2}}".getBytes(StandardCharsets.UTF_8));
+        assertItemEvictedBy(() -> client.patchBooking(5L, 3L, false));
+    }
+
+    @Test
+    void bulkDecisionEvictsItemsOfSucceededEntries() {
+        bookingsBody.set(List.of(
+                Map.of("index", 0, "booking", Map.of("id", 3, "item", Map.of("id", 2))),
+                Map.of("index", 1, "error", "Бронирование 4 не найдено")));
+
+        assertItemEvictedBy(() -> client.patchBookings(5L, new BookingBulkDecisionInputDto(List.of(
+                new BookingDecisionInputDto(3L, true), new BookingDecisionInputDto(4L, true)))));
+    }
+
+    private void assertItemEvictedBy(Runnable write) {
+        items.exchange(GET_ITEM).join();
+        int calls = itemCalls.get();
+        items.exchange(GET_ITEM).join();
+        assertEquals(calls, itemCalls.get());
+
+        write.run();
+
+        items.exchange(GET_ITEM).join();
+        assertEquals(calls + 1, itemCalls.get());
+    }
+
+    private BookingClient client() {
+        ServerTransportFactory factory = mock(ServerTransportFactory.class);
+        when(factory.create("/bookings"))
+                .thenReturn(call -> CompletableFuture.completedFuture(ResponseEntity.ok(bookingsBody.get())));
+        return new BookingClient(factory, cache, new ObjectMapper());
+    }
+}
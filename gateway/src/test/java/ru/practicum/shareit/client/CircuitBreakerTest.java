@@ -0,0 +1,128 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CircuitBreakerTest {
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            breaker.onComplete(true, FAST);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void opensAtFailureRateThreshold() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        breaker.onComplete(false, FAST);
+        breaker.onComplete(false, FAST);
+        breaker.onComplete(true, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.onComplete(true, FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void opensOnSlowCalls() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 4; i++) {
+            breaker.onComplete(false, SLOW);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void halfOpenLimitsProbesAndClosesOnSuccess() {
+        CircuitBreaker breaker = opened(Duration.ZERO);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onComplete(false, FAST);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onComplete(false, FAST);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.bufferedCalls());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void halfOpenReopensOnFailedProbe() {
+        CircuitBreaker breaker = opened(Duration.ZERO);
+        breaker.tryAcquire();
+        breaker.tryAcquire();
+
+        breaker.onComplete(true, FAST);
+        breaker.onComplete(false, FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void openIgnoresLateCompletions() {
+        CircuitBreaker breaker = opened(Duration.ofMinutes(1));
+
+        breaker.onComplete(false, FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(0, breaker.bufferedCalls());
+    }
+
+    @Test
+    void slidingWindowForgetsOldOutcomes() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+        breaker.onComplete(true, FAST);
+        for (int i = 0; i < 3; i++) {
+            breaker.onComplete(false, FAST);
+        }
+        assertEquals(25f, breaker.failureRate());
+
+        breaker.onComplete(false, FAST);
+
+        assertEquals(0f, breaker.failureRate());
+        assertEquals(4, breaker.bufferedCalls());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private static CircuitBreaker opened(Duration openDuration) {
+        CircuitBreaker breaker = breaker(openDuration);
+        for (int i = 0; i < 4; i++) {
+            breaker.onComplete(true, FAST);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static CircuitBreaker breaker(Duration openDuration) {
+        ResilienceProperties.Settings settings = new ResilienceProperties.Settings();
+        settings.setSlidingWindowSize(4);
+        settings.setMinimumCalls(4);
+        settings.setFailureRateThreshold(50);
+        settings.setSlowCallRateThreshold(50);
+        settings.setSlowCallDuration(Duration.ofSeconds(1));
+        settings.setOpenDuration(openDuration);
+        settings.setHalfOpenCalls(2);
+        return new CircuitBreaker(settings);
+    }
+}
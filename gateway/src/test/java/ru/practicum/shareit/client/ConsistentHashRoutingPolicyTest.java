@@ -0,0 +1,112 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConsistentHashRoutingPolicyTest {
+    private static final int USERS = 30_000;
+    private static final int VIRTUAL_NODES = 160;
+
+    private final LoadBalancerProperties properties = new LoadBalancerProperties();
+    private final List<ServerInstance> instances = List.of(instance("http://s1"), instance("http://s2"),
+            instance("http://s3"));
+    private final ServerInstance fallbackInstance = instance("http://fallback");
+    private final RoutingPolicy fallback = (call, candidates, nowNanos) -> fallbackInstance;
+
+    @Test
+    void spreadsUsersEvenly() {
+        RoutingPolicy policy = policy(instances, false);
+
+        Map<ServerInstance, Integer> counts = new HashMap<>();
+        for (long user = 1; user <= USERS; user++) {
+            counts.merge(policy.choose(call(user, ""), instances, 0), 1, Integer::sum);
+        }
+
+        assertEquals(instances.size(), counts.size());
+        for (int count : counts.values()) {
+            double share = (double) count / USERS;
+            assertTrue(share > 0.25 && share < 0.42, "share " + share);
+        }
+    }
+
+    @Test
+    void addingInstanceMovesOnlyItsShareToIt() {
+        List<ServerInstance> grown = new ArrayList<>(instances);
+        ServerInstance added = instance("http://s4");
+        grown.add(added);
+        RoutingPolicy before = policy(instances, false);
+        RoutingPolicy after = policy(grown, false);
+
+        int moved = 0;
+        for (long user = 1; user <= USERS; user++) {
+            ServerInstance from = before.choose(call(user, ""), instances, 0);
+            ServerInstance to = after.choose(call(user, ""), grown, 0);
+            if (from != to) {
+                assertSame(added, to);
+                moved++;
+            }
+        }
+
+        double share = (double) moved / USERS;
+        assertTrue(share > 0.17 && share < 0.33, "moved " + share);
+    }
+
+    @Test
+    void unavailableOwnerFallsToNextOnRingOnlyForItsKeys() {
+        RoutingPolicy policy = policy(instances, false);
+        ServerInstance down = instances.get(0);
+        List<ServerInstance> available = instances.subList(1, instances.size());
+
+        for (long user = 1; user <= 1_000; user++) {
+            ServerInstance owner = policy.choose(call(user, ""), instances, 0);
+            ServerInstance chosen = policy.choose(call(user, ""), available, 0);
+            if (owner == down) {
+                assertNotEquals(down, chosen);
+            } else {
+                assertSame(owner, chosen);
+            }
+        }
+    }
+
+    @Test
+    void itemRequestsStickToItemRegardlessOfUser() {
+        RoutingPolicy policy = policy(instances, true);
+
+        ServerInstance owner = policy.choose(call(1L, "/42"), instances, 0);
+        for (long user = 2; user <= 100; user++) {
+            assertSame(owner, policy.choose(call(user, "/42/comment"), instances, 0));
+            assertSame(owner, policy.choose(call(user, "/42?from=0"), instances, 0));
+        }
+        assertSame(policy.choose(call(7L, ""), instances, 0), policy.choose(call(7L, "/search?text=x"), instances, 0));
+        assertSame(policy.choose(call(7L, ""), instances, 0), policy.choose(call(7L, "/42x"), instances, 0));
+    }
+
+    @Test
+    void callWithoutKeyUsesFallback() {
+        RoutingPolicy policy = policy(instances, true);
+
+        assertSame(fallbackInstance, policy.choose(call(null, "/search"), instances, 0));
+    }
+
+    private RoutingPolicy policy(List<ServerInstance> ring, boolean routeByItem) {
+        return new ConsistentHashRoutingPolicy(ring, VIRTUAL_NODES, routeByItem, fallback);
+    }
+
+    private ServerInstance instance(String url) {
+        return new ServerInstance(url, properties);
+    }
+
+    private static ServerCall call(Long userId, String path) {
+        return new ServerCall(HttpMethod.GET, path, userId, null, null);
+    }
+}
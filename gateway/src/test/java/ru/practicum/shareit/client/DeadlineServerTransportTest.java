@@ -0,0 +1,75 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeadlineServerTransportTest {
+    private final List<Long> sentTimeouts = new CopyOnWriteArrayList<>();
+    private final ServerTransport server = call -> {
+        sentTimeouts.add(CallTimeout.millis(call));
+        return CompletableFuture.completedFuture(ResponseEntity.ok().build());
+    };
+
+    @Test
+    void everyAttemptCarriesTheRemainingBudget() throws Exception {
+        ServerTransport perAttempt = DeadlineServerTransport.perAttempt(server);
+        ServerTransport retryingOnce = call -> perAttempt.exchange(call).thenCompose(first -> {
+            sleep(150);
+            return perAttempt.exchange(call);
+        });
+        ServerTransport transport = new DeadlineServerTransport(retryingOnce, "items", Duration.ofSeconds(1),
+                new SimpleMeterRegistry());
+
+        assertEquals(HttpStatus.OK, transport.exchange(get()).get().getStatusCode());
+
+        assertEquals(2, sentTimeouts.size());
+        assertTrue(sentTimeouts.get(0) <= 1000 && sentTimeouts.get(0) > 900, "first: " + sentTimeouts.get(0));
+        assertTrue(sentTimeouts.get(1) <= sentTimeouts.get(0) - 150, "second: " + sentTimeouts.get(1));
+    }
+
+    @Test
+    void attemptAfterTheDeadlineIsNotSent() {
+        ServerTransport perAttempt = DeadlineServerTransport.perAttempt(server);
+        ServerCall expired = get().withDeadline(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(1));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> perAttempt.exchange(expired).get());
+
+        assertInstanceOf(ServerUnavailableException.class, e.getCause());
+        assertTrue(sentTimeouts.isEmpty());
+    }
+
+    @Test
+    void callWithoutDeadlineIsSentAsIs() throws Exception {
+        DeadlineServerTransport.perAttempt(server).exchange(get()).get();
+
+        assertEquals(List.of(-1L), sentTimeouts);
+    }
+
+    private static ServerCall get() {
+        return new ServerCall(HttpMethod.GET, "/1", 1L, null, null);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HedgingServerTransportTest {
+    private static final ServerCall GET = new ServerCall(HttpMethod.GET, "/1", 1L, null, null);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    void retryAfterTransportErrorSpendsBudget() throws Exception {
+        RetryBudget budget = RetryBudgetTest.budget(0, 1);
+        ServerTransport transport = hedging(budget, attempt -> attempt == 1 ? failed(new IllegalStateException()) : ok());
+
+        assertEquals(HttpStatus.OK, transport.exchange(GET).get().getStatusCode());
+
+        assertEquals(2, attempts.get());
+        assertEquals(0, budget.available());
+        assertEquals(1, count("shareit.client.hedging.attempts", "kind", "retry"));
+    }
+
+    @Test
+    void exhaustedBudgetFailsWithoutRetry() {
+        RetryBudget budget = RetryBudgetTest.budget(0, 1);
+        budget.tryWithdraw();
+        ServerTransport transport = hedging(budget, attempt -> failed(new IllegalStateException()));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> transport.exchange(GET).get());
+
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(1, attempts.get());
+        assertEquals(1, count("shareit.client.hedging.budget.exhausted"));
+    }
+
+    @Test
+    void rejectionsAndNonGetRequestsDoNotTouchBudget() {
+        RetryBudget budget = RetryBudgetTest.budget(0, 1);
+        ServerTransport transport = hedging(budget, attempt -> failed(new ServerUnavailableException("open")));
+
+        assertThrows(ExecutionException.class, () -> transport.exchange(GET).get());
+        assertThrows(ExecutionException.class,
+                () -> transport.exchange(new ServerCall(HttpMethod.POST, "", 1L, null, null)).get());
+
+        assertEquals(2, attempts.get());
+        assertEquals(1, budget.available());
+    }
+
+    @Test
+    void slowPrimaryIsHedgedOncePercentileIsKnown() throws Exception {
+        RetryBudget budget = RetryBudgetTest.budget(0, 1);
+        int warmUp = 64;
+        ServerTransport transport = hedging(budget,
+                attempt -> attempt == warmUp + 1 ? delayed(Duration.ofSeconds(5)) : ok());
+        for (int i = 0; i < warmUp; i++) {
+            transport.exchange(GET).get();
+        }
+
+        ResponseEntity<Object> response = transport.exchange(GET).get(2, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(warmUp + 2, attempts.get());
+        assertEquals(0, budget.available());
+        assertEquals(1, count("shareit.client.hedging.wins", "winner", "hedge"));
+    }
+
+    @Test
+    void hedgeIsSkippedWhenBudgetIsEmpty() throws Exception {
+        RetryBudget budget = RetryBudgetTest.budget(0, 1);
+        budget.tryWithdraw();
+        int warmUp = 64;
+        ServerTransport transport = hedging(budget,
+                attempt -> attempt == warmUp + 1 ? delayed(Duration.ofMillis(200)) : ok());
+        for (int i = 0; i < warmUp; i++) {
+            transport.exchange(GET).get();
+        }
+
+        assertEquals(HttpStatus.OK, transport.exchange(GET).get(2, TimeUnit.SECONDS).getStatusCode());
+
+        assertEquals(warmUp + 1, attempts.get());
+        assertEquals(1, count("shareit.client.hedging.budget.exhausted"));
+    }
+
+    private ServerTransport hedging(RetryBudget budget, IntFunction<CompletableFuture<ResponseEntity<Object>>> server) {
+        HedgingProperties properties = new HedgingProperties();
+        properties.setMinSamples(1);
+        properties.setMinDelay(Duration.ofMillis(20));
+        return new HedgingServerTransport(call -> server.apply(attempts.incrementAndGet()), "items", properties,
+                budget, meterRegistry);
+    }
+
+    private double count(String name, String... tags) {
+        return meterRegistry.counter(name, withClient(tags)).count();
+    }
+
+    private static String[] withClient(String... tags) {
+        String[] all = new String[tags.length + 2];
+        all[0] = "client";
+        all[1] = "items";
+        System.arraycopy(tags, 0, all, 2, tags.length);
+        return all;
+    }
+
+    private static CompletableFuture<ResponseEntity<Object>> ok() {
+        return CompletableFuture.completedFuture(ResponseEntity.ok().build());
+    }
+
+    private static CompletableFuture<ResponseEntity<Object>> failed(RuntimeException e) {
+        return CompletableFuture.failedFuture(e);
+    }
+
+    private static CompletableFuture<ResponseEntity<Object>> delayed(Duration delay) {
+        return CompletableFuture.supplyAsync(() -> ResponseEntity.ok().build(),
+                CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadBalancingServerTransportTest {
+    private static final ServerCall GET = new ServerCall(HttpMethod.GET, "/1", 1L, null, null);
+
+    private final LoadBalancerProperties properties = new LoadBalancerProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void failingInstanceIsEjectedAfterThreshold() throws Exception {
+        properties.setEjectionThreshold(2);
+        properties.setEjectionDuration(Duration.ofMinutes(1));
+        ServerInstance failing = new ServerInstance("http://s1", properties);
+        ServerInstance healthy = new ServerInstance("http://s2", properties);
+        AtomicInteger failingHits = new AtomicInteger();
+        Map<ServerInstance, ServerTransport> transports = new LinkedHashMap<>();
+        transports.put(failing, call -> {
+            failingHits.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        });
+        transports.put(healthy, call -> CompletableFuture.completedFuture(ResponseEntity.ok().build()));
+        ServerTransport transport = new LoadBalancingServerTransport(transports, new LeastOutstandingRoutingPolicy(),
+                "items", meterRegistry);
+
+        for (int i = 0; i < 40; i++) {
+            transport.exchange(GET).get();
+        }
+
+        assertEquals(2, failingHits.get());
+        assertFalse(failing.isAvailable(System.nanoTime()));
+        assertEquals(0, failing.getOutstanding());
+        assertEquals(38, meterRegistry.counter("shareit.server.instance.requests",
+                "client", "items", "instance", "http://s2").count());
+    }
+
+    @Test
+    void allEjectedInstancesStillReceiveRequests() throws Exception {
+        properties.setEjectionThreshold(1);
+        properties.setEjectionDuration(Duration.ofMinutes(1));
+        ServerInstance only = new ServerInstance("http://s1", properties);
+        only.onStart();
+        only.onComplete(true);
+        ServerTransport transport = new LoadBalancingServerTransport(
+                Map.of(only, call -> CompletableFuture.completedFuture(ResponseEntity.ok().build())),
+                new LeastOutstandingRoutingPolicy(), "items", meterRegistry);
+
+        assertEquals(HttpStatus.OK, transport.exchange(GET).get().getStatusCode());
+    }
+
+    @Test
+    void leastOutstandingPrefersIdleInstance() {
+        ServerInstance busy = new ServerInstance("http://s1", properties);
+        ServerInstance idle = new ServerInstance("http://s2", properties);
+        busy.onStart();
+        busy.onStart();
+        RoutingPolicy policy = new LeastOutstandingRoutingPolicy();
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(idle, policy.choose(GET, List.of(busy, idle), System.nanoTime()));
+        }
+    }
+
+    @Test
+    void recoveredInstanceRampsUpDuringSlowStart() {
+        properties.setEjectionThreshold(1);
+        properties.setEjectionDuration(Duration.ZERO);
+        properties.setSlowStart(Duration.ofSeconds(10));
+        ServerInstance instance = new ServerInstance("http://s1", properties);
+        assertEquals(1, instance.weight(System.nanoTime()));
+
+        instance.onStart();
+        instance.onComplete(true);
+        long recovered = System.nanoTime();
+
+        assertEquals(0.1, instance.weight(recovered), 0.01);
+        assertEquals(0.5, instance.weight(recovered + Duration.ofSeconds(5).toNanos()), 0.01);
+        assertEquals(1, instance.weight(recovered + Duration.ofSeconds(10).toNanos()));
+        assertTrue(instance.isAvailable(recovered));
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResponseCacheTest {
+
+    @Test
+    void entryIsFreshUntilFreshForAndRevalidationRenewsIt() {
+        ResponseCache cache = cache(100, Duration.ofMinutes(10), Duration.ofSeconds(1));
+
+        assertTrue(cache.isFresh(entry(System.nanoTime())));
+        ResponseCache.Entry stale = entry(System.nanoTime() - Duration.ofSeconds(2).toNanos());
+        assertFalse(cache.isFresh(stale));
+        assertTrue(cache.isFresh(stale.revalidated()));
+    }
+
+    @Test
+    void entriesAreKeptPerUser() {
+        ResponseCache cache = cache(100, Duration.ofMinutes(10), Duration.ofSeconds(1));
+
+        cache.put("/items/1", 1L, entry(System.nanoTime()));
+
+        assertNotNull(cache.get("/items/1", 1L));
+        assertNull(cache.get("/items/1", 2L));
+        cache.remove("/items/1", 1L);
+        assertNull(cache.get("/items/1", 1L));
+    }
+
+    @Test
+    void evictRemovesResourceAndNestedResourcesForAllUsers() {
+        ResponseCache cache = cache(100, Duration.ofMinutes(10), Duration.ofSeconds(1));
+        put(cache, "/items", "/items/1", "/items/1/comment", "/items/10");
+
+        cache.evict("/items/1");
+
+        assertNotNull(cache.get("/items", 1L));
+        assertNull(cache.get("/items/1", 1L));
+        assertNull(cache.get("/items/1", 2L));
+        assertNull(cache.get("/items/1/comment", 1L));
+        assertNotNull(cache.get("/items/10", 2L));
+    }
+
+    @Test
+    void evictEnclosingRemovesResourcesContainingPath() {
+        ResponseCache cache = cache(100, Duration.ofMinutes(10), Duration.ofSeconds(1));
+        put(cache, "/items", "/items/1", "/items/1/comment", "/items/10");
+
+        cache.evictEnclosing("/items/1/comment");
+
+        assertNull(cache.get("/items", 1L));
+        assertNull(cache.get("/items/1", 2L));
+        assertNull(cache.get("/items/1/comment", 1L));
+        assertNotNull(cache.get("/items/10", 1L));
+    }
+
+    @Test
+    void entriesExpireAfterTimeToLive() throws Exception {
+        ResponseCache cache = cache(100, Duration.ofMillis(50), Duration.ofSeconds(1));
+        cache.put("/items/1", 1L, entry(System.nanoTime()));
+
+        Thread.sleep(100);
+
+        assertNull(cache.get("/items/1", 1L));
+    }
+
+    @Test
+    void sizeIsBoundedByMaxSize() throws Exception {
+        ResponseCache cache = cache(10, Duration.ofMinutes(10), Duration.ofSeconds(1));
+        for (long id = 1; id <= 100; id++) {
+            cache.put("/items/" + id, 1L, entry(System.nanoTime()));
+        }
+
+        // Caffeine вытесняет записи асинхронно — ждём, пока размер опустится до предела.
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        int present;
+        do {
+            present = 0;
+            for (long id = 1; id <= 100; id++) {
+                if (cache.get("/items/" + id, 1L) != null) {
+                    present++;
+                }
+            }
+        } while (present > 10 && System.nanoTime() < deadline && sleep());
+
+        assertTrue(present <= 10, "entries left: " + present);
+    }
+
+    private static void put(ResponseCache cache, String... paths) {
+        for (String path : paths) {
+            cache.put(path, 1L, entry(System.nanoTime()));
+            cache.put(path, 2L, entry(System.nanoTime()));
+        }
+    }
+
+    private static boolean sleep() throws InterruptedException {
+        Thread.sleep(20);
+        return true;
+    }
+
+    private static ResponseCache.Entry entry(long validatedAtNanos) {
+        return new ResponseCache.Entry(new byte[0], HttpHeaders.EMPTY, "\"1\"", validatedAtNanos);
+    }
+
+    private static ResponseCache cache(long maxSize, Duration timeToLive, Duration freshFor) {
+        CacheProperties properties = new CacheProperties();
+        properties.setMaxSize(maxSize);
+        properties.setTimeToLive(timeToLive);
+        properties.setFreshFor(freshFor);
+        return new ResponseCache(properties, new SimpleMeterRegistry());
+    }
+}
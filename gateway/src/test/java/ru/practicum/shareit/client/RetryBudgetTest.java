@@ -0,0 +1,54 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RetryBudgetTest {
+
+    @Test
+    void startsFullAndSpendsOneUnitPerAttempt() {
+        RetryBudget budget = budget(0.1, 3);
+
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+
+        assertFalse(budget.tryWithdraw());
+        assertEquals(0, budget.available());
+    }
+
+    @Test
+    void depositsAccumulateToWholeAttempts() {
+        RetryBudget budget = budget(0.5, 1);
+        budget.tryWithdraw();
+
+        budget.deposit();
+        assertFalse(budget.tryWithdraw());
+        budget.deposit();
+
+        assertTrue(budget.tryWithdraw());
+    }
+
+    @Test
+    void depositsAreCappedAtMax() {
+        RetryBudget budget = budget(0.7, 2);
+
+        budget.deposit();
+        assertEquals(2, budget.available());
+
+        budget.tryWithdraw();
+        budget.deposit();
+        budget.deposit();
+        assertEquals(2, budget.available());
+    }
+
+    static RetryBudget budget(double ratio, int max) {
+        HedgingProperties properties = new HedgingProperties();
+        properties.setBudgetRatio(ratio);
+        properties.setBudgetMax(max);
+        return new RetryBudget(properties);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.CacheProperties;
+import ru.practicum.shareit.client.CachingServerTransport;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCall;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.ServerTransportFactory;
+import ru.practicum.shareit.item.dto.ItemInputDto;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemClientTest {
+    private static final ServerCall GET_REQUEST = new ServerCall(HttpMethod.GET, "/7", 1L, null, null).asCacheable();
+
+    @Test
+    void patchItemEvictsRequestsWithEmbeddedItems() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResponseCache cache = new ResponseCache(new CacheProperties(), meterRegistry);
+        AtomicInteger requestCalls = new AtomicInteger();
+        ServerTransport requests = new CachingServerTransport(call -> {
+            requestCalls.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.ok().eTag("\"1\"").body((Object) Map.of("id", 7)));
+        }, "/requests", cache, meterRegistry);
+        ServerTransportFactory factory = mock(ServerTransportFactory.class);
+        when(factory.create("/items"))
+                .thenReturn(call -> CompletableFuture.completedFuture(ResponseEntity.ok((Object) Map.of("id", 2))));
+        ItemClient client = new ItemClient(factory, cache);
+        ItemInputDto itemDto = new ItemInputDto();
+        itemDto.setAvailable(false);
+
+        requests.exchange(GET_REQUEST).join();
+        requests.exchange(GET_REQUEST).join();
+        assertEquals(1, requestCalls.get());
+
+        client.patchItem(1L, 2L, itemDto);
+        requests.exchange(GET_REQUEST).join();
+
+        assertEquals(2, requestCalls.get());
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimiterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Route search = new RateLimitProperties.Route();
+        search.setPath("/items/search");
+        search.setLimit(limit(0.001, 1));
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDefaultLimit(limit(0.001, 2));
+        properties.setRoutes(List.of(search));
+        limiter = new RateLimiter(properties, meterRegistry);
+    }
+
+    @Test
+    void routeLimitAppliesByPathPrefix() {
+        assertEquals(0, limiter.tryAcquire("/items/search?text=drill", "1"));
+        assertTrue(limiter.tryAcquire("/items/search?text=saw", "1") > 0);
+
+        assertEquals(0, limiter.tryAcquire("/items/1", "1"));
+        assertEquals(0, limiter.tryAcquire("/items/2", "1"));
+        assertTrue(limiter.tryAcquire("/items/3", "1") > 0);
+    }
+
+    @Test
+    void clientsHaveSeparateBuckets() {
+        assertEquals(0, limiter.tryAcquire("/items/search", "1"));
+        assertTrue(limiter.tryAcquire("/items/search", "1") > 0);
+
+        assertEquals(0, limiter.tryAcquire("/items/search", "2"));
+        assertEquals(1, meterRegistry.counter("shareit.ratelimit.rejected", "route", "/items/search").count());
+    }
+
+    @Test
+    void sweepKeepsBucketsThatAreStillRefilling() {
+        assertEquals(0, limiter.tryAcquire("/items/search", "1"));
+
+        limiter.removeIdleBuckets();
+
+        assertTrue(limiter.tryAcquire("/items/search", "1") > 0);
+    }
+
+    private static RateLimitProperties.Limit limit(double permitsPerSecond, int burst) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setPermitsPerSecond(permitsPerSecond);
+        limit.setBurst(burst);
+        return limit;
+    }
+}
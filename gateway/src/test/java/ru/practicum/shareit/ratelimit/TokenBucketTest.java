@@ -0,0 +1,56 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketTest {
+    private static final long INTERVAL = 100;
+    private static final long BURST = 3;
+    private static final long TOLERANCE = INTERVAL * (BURST - 1);
+
+    @Test
+    void allowsBurstThenOnePermitPerInterval() {
+        TokenBucket bucket = new TokenBucket(0);
+
+        for (int i = 0; i < BURST; i++) {
+            assertEquals(0, bucket.tryAcquire(0, INTERVAL, TOLERANCE));
+        }
+        assertEquals(INTERVAL, bucket.tryAcquire(0, INTERVAL, TOLERANCE));
+        assertEquals(40, bucket.tryAcquire(60, INTERVAL, TOLERANCE));
+
+        assertEquals(0, bucket.tryAcquire(100, INTERVAL, TOLERANCE));
+        assertEquals(INTERVAL, bucket.tryAcquire(100, INTERVAL, TOLERANCE));
+    }
+
+    @Test
+    void rejectedRequestDoesNotConsumeAPermit() {
+        TokenBucket bucket = new TokenBucket(0);
+        for (int i = 0; i < BURST; i++) {
+            bucket.tryAcquire(0, INTERVAL, TOLERANCE);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(bucket.tryAcquire(50, INTERVAL, TOLERANCE) > 0);
+        }
+        assertEquals(0, bucket.tryAcquire(100, INTERVAL, TOLERANCE));
+    }
+
+    @Test
+    void refillsToFullBurstAfterIdlePeriod() {
+        TokenBucket bucket = new TokenBucket(0);
+        for (int i = 0; i < BURST; i++) {
+            bucket.tryAcquire(0, INTERVAL, TOLERANCE);
+        }
+        assertFalse(bucket.isFull(0));
+        assertTrue(bucket.isFull(BURST * INTERVAL));
+
+        long later = 10_000;
+        for (int i = 0; i < BURST; i++) {
+            assertEquals(0, bucket.tryAcquire(later, INTERVAL, TOLERANCE));
+        }
+        assertTrue(bucket.tryAcquire(later, INTERVAL, TOLERANCE) > 0);
+    }
+}
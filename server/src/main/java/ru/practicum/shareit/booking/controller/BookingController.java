@@ -1,10 +1,16 @@
 package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingBulkNewDto;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingNewDto;
+import ru.practicum.shareit.booking.dto.BookingPageRequest;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.List;
@@ -16,6 +22,7 @@ import java.util.List;
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     private final BookingService bookingService;
 
@@ -25,6 +32,18 @@ public class BookingController {
         return bookingService.createBooking(userId, bookingDto);
     }
 
+    @PostMapping("/bulk")
+    public List<BookingBulkResultDto> createBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @RequestBody BookingBulkNewDto bookingsDto) {
+        return bookingService.createBookings(userId, bookingsDto.getBookings());
+    }
+
+    @PatchMapping("/bulk")
+    public List<BookingBulkResultDto> decideBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                     @RequestBody BookingBulkDecisionDto decisionsDto) {
+        return bookingService.decideBookings(ownerId, decisionsDto.getDecisions());
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto updateBooking(@RequestHeader("X-Sharer-User-Id") Long ownerId,
                                     @PathVariable Long bookingId,
@@ -39,14 +58,34 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> findBookingsByState(@RequestHeader("X-Sharer-User-Id") Long bookerId,
-                                                @RequestParam(defaultValue = "ALL") BookingState state) {
-        return bookingService.findBookingsByState(bookerId, state);
+    public ResponseEntity<List<BookingDto>> findBookingsByState(@RequestHeader("X-Sharer-User-Id") Long bookerId,
+                                                                @RequestParam(defaultValue = "ALL") BookingState state,
+                                                                @RequestParam(defaultValue = "0") int from,
+                                                                @RequestParam(required = false) Integer size,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Long itemId) {
+        BookingPageRequest page = BookingPageRequest.of(from, size, cursor);
+        return withNextCursor(page, itemId == null
+                ? bookingService.findBookingsByState(bookerId, state, page)
+                : bookingService.findBookingsByItem(bookerId, itemId, state, page));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> findBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                                  @RequestParam(defaultValue = "ALL") BookingState state) {
-        return bookingService.findBookingsByOwnerId(ownerId, state);
+    public ResponseEntity<List<BookingDto>> findBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                                  @RequestParam(defaultValue = "ALL") BookingState state,
+                                                                  @RequestParam(defaultValue = "0") int from,
+                                                                  @RequestParam(required = false) Integer size,
+                                                                  @RequestParam(required = false) String cursor) {
+        BookingPageRequest page = BookingPageRequest.of(from, size, cursor);
+        return withNextCursor(page, bookingService.findBookingsByOwnerId(ownerId, state, page));
+    }
+
+    private static ResponseEntity<List<BookingDto>> withNextCursor(BookingPageRequest page, List<BookingDto> bookings) {
+        BookingCursor next = page.next(bookings);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (next != null) {
+            response.header(NEXT_CURSOR_HEADER, next.encode());
+        }
+        return response.body(bookings);
     }
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Итог одной записи пакета: бронирование после операции или причина отказа. {@code index} — позиция записи
+ * в запросе.
+ */
+public record BookingBulkResultDto(int index, @Nullable BookingDto booking, @Nullable String error) {
+
+    public static BookingBulkResultDto succeeded(int index, BookingDto booking) {
+        return new BookingBulkResultDto(index, booking, null);
+    }
+
+    public static BookingBulkResultDto failed(int index, String error) {
+        return new BookingBulkResultDto(index, null, error);
+    }
+}
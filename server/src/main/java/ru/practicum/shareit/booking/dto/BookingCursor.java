@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в списке бронирований, упорядоченном по {@code (start, id)} по убыванию.
+ * Клиенту отдаётся как непрозрачная строка и передаётся обратно без изменений.
+ */
+public record BookingCursor(LocalDateTime start, long id) {
+    private static final char SEPARATOR = '|';
+
+    public static BookingCursor of(BookingDto booking) {
+        return new BookingCursor(booking.getStart(), booking.getId());
+    }
+
+    public String encode() {
+        String raw = start.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new BookingCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректный курсор страницы: " + cursor);
+        }
+    }
+}
@@ -3,24 +3,76 @@ package ru.practicum.shareit.booking.dto;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.enums.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.item.dto.CommentDto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
- * TODO Sprint add-bookings.
+ * Ответ эндпоинтов бронирований. Вещь, её владелец, запрос и бронирующий — плоские представления только с теми
+ * полями, которые отдаются клиенту, поэтому списки читаются одной проекцией без сущностей.
  */
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class BookingDto {
     private Long id;
     private Long itemId;
-    private Item item;
-    private User booker;
+    private ItemView item;
+    private UserView booker;
     private BookingStatus status;
     private LocalDateTime start;
     private LocalDateTime end;
+
+    /**
+     * Конструктор для JPQL-проекции {@code select new ...}.
+     */
+    public BookingDto(Long id, BookingStatus status, LocalDateTime start, LocalDateTime end,
+                      Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                      Long ownerId, String ownerName, String ownerEmail,
+                      Long requestId, String requestDescription, LocalDateTime requestCreated,
+                      Long bookerId, String bookerName, String bookerEmail) {
+        this(id, itemId, new ItemView(itemId, itemName, itemDescription, itemAvailable,
+                        new UserView(ownerId, ownerName, ownerEmail),
+                        requestId == null ? null : new RequestView(requestId, requestDescription, requestCreated),
+                        List.of()),
+                new UserView(bookerId, bookerName, bookerEmail), status, start, end);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemView {
+        private Long id;
+        private String name;
+        private String description;
+        private Boolean available;
+        private UserView owner;
+        private RequestView request;
+        /**
+         * Всегда пуст: отзывы отдаются с вещью, а не с бронированием. Ключ сохранён для совместимости ответа.
+         */
+        private List<CommentDto> comments;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserView {
+        private Long id;
+        private String name;
+        private String email;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RequestView {
+        private Long id;
+        private String description;
+        private LocalDateTime created;
+    }
 }
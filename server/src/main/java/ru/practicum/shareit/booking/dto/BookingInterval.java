@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Период бронирования без сущностей — для проверок пересечения.
+ */
+public record BookingInterval(Long id, Long itemId, LocalDateTime start, LocalDateTime end) {
+
+    public boolean intersects(LocalDateTime from, LocalDateTime to) {
+        return !from.isAfter(end) && !to.isBefore(start);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.dto;
+
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Страница списка бронирований: смещение {@code from} и размер {@code size}, как в API gateway,
+ * либо продолжение после {@code cursor}. Без {@code size} список не ограничивается.
+ * С курсором {@code from} не учитывается: курсор уже указывает, откуда продолжать.
+ */
+public record BookingPageRequest(int from, @Nullable Integer size, @Nullable BookingCursor cursor) {
+
+    public BookingPageRequest {
+        if (from < 0) {
+            throw new IllegalArgumentException("Параметр from не может быть отрицательным");
+        }
+        if (size != null && size <= 0) {
+            throw new IllegalArgumentException("Параметр size должен быть положительным");
+        }
+        if (cursor != null) {
+            from = 0;
+        }
+    }
+
+    public static BookingPageRequest unpaged() {
+        return new BookingPageRequest(0, null, null);
+    }
+
+    public static BookingPageRequest of(int from, @Nullable Integer size, @Nullable String cursor) {
+        return new BookingPageRequest(from, size, cursor == null || cursor.isBlank() ? null : BookingCursor.decode(cursor));
+    }
+
+    /**
+     * Курсор следующей страницы, если текущая заполнена целиком.
+     */
+    @Nullable
+    public BookingCursor next(List<BookingDto> page) {
+        if (size == null || page.size() < size) {
+            return null;
+        }
+        return BookingCursor.of(page.get(page.size() - 1));
+    }
+}
@@ -5,29 +5,47 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingNewDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
 public class BookingMapper {
 
     public static BookingDto toBookingDto(Booking booking) {
         return new BookingDto(
                 booking.getId(),
                 booking.getItem().getId(),
-                booking.getItem(),
-                booking.getBooker(),
+                toItemView(booking.getItem()),
+                toUserView(booking.getBooker()),
                 booking.getStatus(),
                 booking.getStart(),
                 booking.getEnd()
         );
     }
 
+    public static BookingDto.ItemView toItemView(Item item) {
+        ItemRequest request = item.getRequest();
+        return new BookingDto.ItemView(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                toUserView(item.getOwner()),
+                request == null ? null
+                        : new BookingDto.RequestView(request.getId(), request.getDescription(), request.getCreated()),
+                List.of());
+    }
+
+    public static BookingDto.UserView toUserView(User user) {
+        return new BookingDto.UserView(user.getId(), user.getName(), user.getEmail());
+    }
+
     public static Booking toBooking(BookingNewDto bookingDto, Item item, User booker, BookingStatus status) {
         Booking booking = new Booking();
         booking.setItem(item);
         booking.setBooker(booker);
         booking.setStatus(status);
-        booking.setStart(bookingDto.getStart());
-        booking.setEnd(bookingDto.getEnd());
+        // Точность как у TIMESTAMP в базе: ответы из проекций и курсоры совпадают с тем, что вернул POST.
+        booking.setStart(bookingDto.getStart().truncatedTo(ChronoUnit.MICROS));
+        booking.setEnd(bookingDto.getEnd().truncatedTo(ChronoUnit.MICROS));
         return booking;
     }
 }
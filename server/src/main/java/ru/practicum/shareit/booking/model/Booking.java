@@ -18,8 +18,13 @@ import java.time.LocalDateTime;
 @Table(name = "bookings")
 public class Booking {
 
+    /**
+     * Идентификаторы берутся из последовательности блоками по 50: с IDENTITY Hibernate не может
+     * объединять вставки в JDBC-пакеты.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, name = "start_time")
@@ -39,4 +44,7 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, name = "status")
     private BookingStatus status;
+
+    @Version
+    private Long version;
 }
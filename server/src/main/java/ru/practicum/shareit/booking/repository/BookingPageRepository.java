@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageRequest;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Постраничная выборка бронирований в порядке {@code start desc, id desc} сразу в виде {@link BookingDto}.
+ * Продолжение по курсору идёт поиском по индексу, а не пропуском {@code from} строк.
+ */
+public interface BookingPageRepository {
+
+    List<BookingDto> findPage(BookingRole role, Long userId, BookingState state, LocalDateTime now,
+                           BookingPageRequest page);
+
+    /**
+     * То же, что {@link #findPage}, но только бронирования одной вещи.
+     */
+    List<BookingDto> findItemPage(BookingRole role, Long userId, Long itemId, BookingState state, LocalDateTime now,
+                                  BookingPageRequest page);
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageRequest;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+class BookingPageRepositoryImpl implements BookingPageRepository {
+    private static final Map<BookingRole, Map<BookingState, BookingQueryPlan>> PLANS = buildPlans(false);
+    private static final Map<BookingRole, Map<BookingState, BookingQueryPlan>> ITEM_PLANS = buildPlans(true);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDto> findPage(BookingRole role, Long userId, BookingState state, LocalDateTime now,
+                                  BookingPageRequest page) {
+        return find(PLANS.get(role).get(state), userId, null, now, page);
+    }
+
+    @Override
+    public List<BookingDto> findItemPage(BookingRole role, Long userId, Long itemId, BookingState state,
+                                         LocalDateTime now, BookingPageRequest page) {
+        return find(ITEM_PLANS.get(role).get(state), userId, itemId, now, page);
+    }
+
+    private List<BookingDto> find(BookingQueryPlan plan, Long userId, @Nullable Long itemId, LocalDateTime now,
+                                  BookingPageRequest page) {
+        BookingCursor cursor = page.cursor();
+
+        TypedQuery<BookingDto> query = entityManager
+                .createQuery(cursor == null ? plan.jpql() : plan.jpqlAfterCursor(), BookingDto.class)
+                .setParameter("userId", userId);
+        if (itemId != null) {
+            query.setParameter("itemId", itemId);
+        }
+        if (plan.status() != null) {
+            query.setParameter("status", plan.status());
+        }
+        if (plan.usesNow()) {
+            query.setParameter("now", now);
+        }
+        if (cursor != null) {
+            query.setParameter("cursorStart", cursor.start()).setParameter("cursorId", cursor.id());
+        }
+        query.setFirstResult(page.from());
+        if (page.size() != null) {
+            query.setMaxResults(page.size());
+        }
+        return query.getResultList();
+    }
+
+    private static Map<BookingRole, Map<BookingState, BookingQueryPlan>> buildPlans(boolean forItem) {
+        Map<BookingRole, Map<BookingState, BookingQueryPlan>> plans = new EnumMap<>(BookingRole.class);
+        for (BookingRole role : BookingRole.values()) {
+            Map<BookingState, BookingQueryPlan> byState = new EnumMap<>(BookingState.class);
+            for (BookingState state : BookingState.values()) {
+                byState.put(state, BookingQueryPlan.of(role, state, forItem));
+            }
+            plans.put(role, byState);
+        }
+        return plans;
+    }
+}
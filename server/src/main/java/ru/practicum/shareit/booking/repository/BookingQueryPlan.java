@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+/**
+ * Готовый текст запроса списка бронирований для пары (роль, состояние): условие на пользователя, предикат
+ * состояния и порядок {@code start desc, id desc}. Строки неизменны, поэтому Hibernate разбирает каждую один раз
+ * и дальше берёт из своего кэша планов.
+ * <p>
+ * Запрос сразу собирает {@link BookingDto} из нужных столбцов бронирования, вещи, её владельца и запроса
+ * и бронирующего
+ * ({@link #PROJECTION}), так что страница любого размера читается одним select без загрузки сущностей.
+ *
+ * @param jpql            первая страница или страница по смещению
+ * @param jpqlAfterCursor продолжение после курсора
+ * @param status          статус, которым ограничено состояние, или {@code null} для {@link BookingState#ALL}
+ * @param usesNow         нужен ли параметр {@code :now}
+ */
+record BookingQueryPlan(String jpql, String jpqlAfterCursor, @Nullable BookingStatus status, boolean usesNow) {
+    static final String PROJECTION = "select new " + BookingDto.class.getName()
+            + "(b.id, b.status, b.start, b.end, i.id, i.name, i.description, i.available, o.id, o.name, o.email,"
+            + " r.id, r.description, r.created, u.id, u.name, u.email)"
+            + " from Booking b join b.item i join i.owner o left join i.request r join b.booker u";
+    private static final String CURSOR_CONDITION =
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId))";
+    private static final String ITEM_CONDITION = " and i.id = :itemId";
+    private static final String ORDER = " order by b.start desc, b.id desc";
+
+    static BookingQueryPlan of(BookingRole role, BookingState state) {
+        return of(role, state, false);
+    }
+
+    /**
+     * @param forItem ограничить список одной вещью (параметр {@code :itemId})
+     */
+    static BookingQueryPlan of(BookingRole role, BookingState state, boolean forItem) {
+        String where = PROJECTION + " where " + userCondition(role) + (forItem ? ITEM_CONDITION : "")
+                + stateCondition(state);
+        return new BookingQueryPlan(where + ORDER, where + CURSOR_CONDITION + ORDER, status(state),
+                switch (state) {
+                    case CURRENT, PAST, FUTURE -> true;
+                    case ALL, WAITING, REJECTED -> false;
+                });
+    }
+
+    private static String userCondition(BookingRole role) {
+        return switch (role) {
+            case BOOKER -> "b.booker.id = :userId";
+            case OWNER -> "o.id = :userId";
+        };
+    }
+
+    private static String stateCondition(BookingState state) {
+        return switch (state) {
+            case ALL -> "";
+            case CURRENT -> " and b.status = :status and b.start <= :now and b.end > :now";
+            case PAST -> " and b.status = :status and b.end < :now";
+            case FUTURE -> " and b.status = :status and b.start > :now";
+            case WAITING, REJECTED -> " and b.status = :status";
+        };
+    }
+
+    @Nullable
+    private static BookingStatus status(BookingState state) {
+        return switch (state) {
+            case ALL -> null;
+            case CURRENT, PAST, FUTURE -> BookingStatus.APPROVED;
+            case WAITING -> BookingStatus.WAITING;
+            case REJECTED -> BookingStatus.REJECTED;
+        };
+    }
+}
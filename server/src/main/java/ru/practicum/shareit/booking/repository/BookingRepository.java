@@ -1,42 +1,77 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
-
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    @Query("select b from Booking as b " +
-            "where b.item.id = :itemId and b.status in (:statuses) and :startDate <= b.end and :endDate >= b.start")
-    List<Booking> findAllWithIntersectionDates(Long itemId, Set<BookingStatus> statuses, LocalDateTime startDate,
-                                               LocalDateTime endDate);
+import java.util.Optional;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingPageRepository {
+
+    @Query("select b.status as status, b.item.owner.id as ownerId from Booking b where b.id = :bookingId")
+    Optional<StatusAndOwner> findStatusAndOwnerById(Long bookingId);
+
+    /**
+     * Бронирования пакета вместе с вещами, их владельцами и бронирующими — одним запросом.
+     */
+    @Query("select b from Booking b join fetch b.item i join fetch i.owner left join fetch i.request "
+            + "join fetch b.booker where b.id in :ids")
+    List<Booking> findAllDetailedByIdIn(Collection<Long> ids);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.status, b.start, b.end, "
+            + "i.id, i.name, i.description, i.available, o.id, o.name, o.email, "
+            + "r.id, r.description, r.created, u.id, u.name, u.email) "
+            + "from Booking b join b.item i join i.owner o left join i.request r join b.booker u "
+            + "where b.id = :bookingId and (u.id = :userId or o.id = :userId)")
+    Optional<BookingDto> findViewByIdAndBookerIdOrOwnerId(Long bookingId, Long userId);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.item.id, b.start, b.end) "
+            + "from Booking b where b.id = :bookingId")
+    Optional<BookingInterval> findIntervalById(Long bookingId);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.item.id, b.start, b.end) "
+            + "from Booking b where b.item.id = :itemId and b.status = :status")
+    List<BookingInterval> findIntervals(Long itemId, BookingStatus status);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.item.id, b.start, b.end) "
+            + "from Booking b where b.item.id = :itemId and b.status = :status and b.end >= :from")
+    List<BookingInterval> findIntervalsEndingFrom(Long itemId, BookingStatus status, LocalDateTime from);
+
+    /**
+     * Периоды бронирований нескольких вещей, задевающие {@code [from, to]}, — одним запросом для пакета.
+     */
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.item.id, b.start, b.end) "
+            + "from Booking b where b.item.id in :itemIds and b.status = :status "
+            + "and b.start <= :to and b.end >= :from")
+    List<BookingInterval> findIntervals(Collection<Long> itemIds, BookingStatus status,
+                                        LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Переводит бронирование из статуса {@code expected} в {@code status}, только если вещь принадлежит
+     * {@code ownerId}. Проверка и запись — один UPDATE, поэтому параллельные решения не теряются.
+     *
+     * @return 1, если переход выполнен, иначе 0
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 "
+            + "where b.id = :bookingId and b.status = :expected "
+            + "and exists (select i.id from Item i where i.id = b.item.id and i.owner.id = :ownerId)")
+    int updateStatus(Long bookingId, Long ownerId, BookingStatus expected, BookingStatus status);
 
     List<Booking> findAllByItemIdAndBookerId(Long itemId, Long bookerId);
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId);
-
-    List<Booking> findAllByBookerIdAndStatusAndEndIsAfterOrderByStartDesc(Long bookerId, BookingStatus status, LocalDateTime dt);
-
-    List<Booking> findAllByBookerIdAndStatusAndEndIsBeforeOrderByStartDesc(Long bookerId, BookingStatus status, LocalDateTime dt);
-
-    List<Booking> findAllByBookerIdAndStatusAndStartIsAfterOrderByStartDesc(Long bookerId, BookingStatus status, LocalDateTime dt);
-
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
-
     List<Booking> findAllByItemIdOrderByStartAsc(Long itemId);
 
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(Long ownerId);
-
-    List<Booking> findAllByItemOwnerIdAndStatusAndEndIsAfterOrderByStartDesc(Long ownerId, BookingStatus status, LocalDateTime dt);
-
-    List<Booking> findAllByItemOwnerIdAndStatusAndEndIsBeforeOrderByStartDesc(Long ownerId, BookingStatus status, LocalDateTime dt);
-
-    List<Booking> findAllByItemOwnerIdAndStatusAndStartIsAfterOrderByStartDesc(Long ownerId, BookingStatus status, LocalDateTime dt);
+    interface StatusAndOwner {
+        BookingStatus getStatus();
 
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status);
+        Long getOwnerId();
+    }
 }
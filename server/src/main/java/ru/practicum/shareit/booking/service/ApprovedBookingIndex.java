@@ -0,0 +1,222 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Подтверждённые бронирования каждой вещи, упорядоченные по началу. Проверка пересечения — поиск в
+ * {@link TreeMap} без обращения к базе.
+ * <p>
+ * Вещь загружается из базы при первой проверке. Проверка идёт до любых записей в транзакции, поэтому
+ * загрузка видит только зафиксированные данные и не требует второго соединения. Подтверждение добавляется
+ * после фиксации транзакции; создание (в статусе WAITING) и отклонение набор подтверждённых не меняют.
+ * Периодическая сверка с базой перечитывает разошедшиеся вещи.
+ * <p>
+ * В памяти держатся только периоды, закончившиеся не раньше {@code shareit.booking.index.retention} назад;
+ * проверку периода, начавшегося раньше этого горизонта, выполняет база. Вещи, которые не проверялись
+ * {@code shareit.booking.index.idle-timeout}, выгружаются при сверке.
+ * <p>
+ * Индекс свой у каждого экземпляра сервера и видит подтверждения других экземпляров только после сверки.
+ * Между экземплярами пересечения исключает ограничение {@code bookings_approved_no_overlap} в PostgreSQL;
+ * индекс лишь избавляет от запроса к базе в большинстве проверок.
+ */
+@Slf4j
+@Component
+public class ApprovedBookingIndex {
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate loadTransaction;
+    private final Map<Long, ItemIntervals> items = new ConcurrentHashMap<>();
+    private final Duration retention;
+    private final long idleTimeoutNanos;
+
+    public ApprovedBookingIndex(BookingRepository bookingRepository, PlatformTransactionManager transactionManager,
+                                @Value("${shareit.booking.index.retention:P1D}") Duration retention,
+                                @Value("${shareit.booking.index.idle-timeout:PT1H}") Duration idleTimeout) {
+        this.bookingRepository = bookingRepository;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setReadOnly(true);
+        this.retention = retention;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    /**
+     * Пересекается ли период {@code [start, end]} (границы включительно) с подтверждённым бронированием вещи.
+     */
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return items.computeIfAbsent(itemId, ItemIntervals::new).overlaps(start, end);
+    }
+
+    /**
+     * Учитывает подтверждение после фиксации текущей транзакции; при откате индекс не меняется.
+     */
+    public void approved(Long itemId, BookingInterval interval) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(itemId, interval);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(itemId, interval);
+            }
+        });
+    }
+
+    /**
+     * Выгружает давно не проверявшиеся вещи, отбрасывает закончившиеся периоды остальных, сверяет их с базой
+     * и перечитывает разошедшиеся.
+     *
+     * @return число вещей, в которых индекс разошёлся с базой
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking.index.check-interval:PT10M}",
+            initialDelayString = "${shareit.booking.index.check-interval:PT10M}")
+    public int verify() {
+        LocalDateTime horizon = horizon();
+        long now = System.nanoTime();
+        int diverged = 0;
+        for (Map.Entry<Long, ItemIntervals> entry : items.entrySet()) {
+            ItemIntervals intervals = entry.getValue();
+            if (now - intervals.lastUsedNanos > idleTimeoutNanos) {
+                items.remove(entry.getKey(), intervals);
+            } else if (intervals.verify(horizon)) {
+                diverged++;
+            }
+        }
+        if (diverged > 0) {
+            log.warn("Индекс подтверждённых бронирований разошёлся с базой для {} вещей, данные перечитаны", diverged);
+        }
+        return diverged;
+    }
+
+    private void add(Long itemId, BookingInterval interval) {
+        // Незагруженную вещь не трогаем: первая проверка прочитает подтверждение из базы.
+        ItemIntervals intervals = items.get(itemId);
+        if (intervals != null) {
+            intervals.add(interval);
+        }
+    }
+
+    /**
+     * Граница, раньше которой закончившиеся периоды в памяти не держатся.
+     */
+    private LocalDateTime horizon() {
+        return LocalDateTime.now().minus(retention);
+    }
+
+    private Map<Long, BookingInterval> load(Long itemId, LocalDateTime horizon) {
+        List<BookingInterval> approved = loadTransaction.execute(status ->
+                bookingRepository.findIntervalsEndingFrom(itemId, BookingStatus.APPROVED, horizon));
+        Map<Long, BookingInterval> byId = new HashMap<>();
+        if (approved != null) {
+            approved.forEach(interval -> byId.put(interval.id(), interval));
+        }
+        return byId;
+    }
+
+    private final class ItemIntervals {
+        private final Long itemId;
+        private final NavigableMap<LocalDateTime, Map<Long, BookingInterval>> byStart = new TreeMap<>();
+        private final Map<Long, BookingInterval> byId = new HashMap<>();
+        private Duration longest = Duration.ZERO;
+        private boolean loaded;
+        private LocalDateTime horizon;
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        private ItemIntervals(Long itemId) {
+            this.itemId = itemId;
+        }
+
+        synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            lastUsedNanos = System.nanoTime();
+            if (!loaded) {
+                horizon = horizon();
+                replace(load(itemId, horizon));
+                loaded = true;
+            }
+            if (end.isBefore(start)) {
+                return false;
+            }
+            if (start.isBefore(horizon)) {
+                // Закончившиеся до горизонта периоды уже отброшены — такой период проверяет база.
+                List<BookingInterval> found = loadTransaction.execute(status -> bookingRepository.findIntervals(
+                        List.of(itemId), BookingStatus.APPROVED, start, end));
+                return found != null && !found.isEmpty();
+            }
+            // Пересечься могут только периоды, начавшиеся не раньше чем за самый длинный период до start.
+            for (Map<Long, BookingInterval> sameStart : byStart.subMap(start.minus(longest), true, end, true).values()) {
+                for (BookingInterval interval : sameStart.values()) {
+                    if (interval.intersects(start, end)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        synchronized void add(BookingInterval interval) {
+            if (!loaded || byId.containsKey(interval.id())) {
+                return;
+            }
+            put(interval);
+        }
+
+        synchronized boolean verify(LocalDateTime newHorizon) {
+            if (!loaded) {
+                return false;
+            }
+            horizon = newHorizon;
+            List.copyOf(byId.values()).stream()
+                    .filter(interval -> interval.end().isBefore(newHorizon))
+                    .forEach(this::remove);
+            Map<Long, BookingInterval> actual = load(itemId, newHorizon);
+            if (actual.equals(byId)) {
+                return false;
+            }
+            replace(actual);
+            return true;
+        }
+
+        private void replace(Map<Long, BookingInterval> intervals) {
+            byStart.clear();
+            byId.clear();
+            longest = Duration.ZERO;
+            intervals.values().forEach(this::put);
+        }
+
+        private void remove(BookingInterval interval) {
+            byId.remove(interval.id());
+            Map<Long, BookingInterval> sameStart = byStart.get(interval.start());
+            sameStart.remove(interval.id());
+            if (sameStart.isEmpty()) {
+                byStart.remove(interval.start());
+            }
+        }
+
+        private void put(BookingInterval interval) {
+            byId.put(interval.id(), interval);
+            byStart.computeIfAbsent(interval.start(), start -> new HashMap<>()).put(interval.id(), interval);
+            Duration length = Duration.between(interval.start(), interval.end());
+            if (length.compareTo(longest) > 0) {
+                longest = length;
+            }
+        }
+    }
+}
@@ -1,15 +1,24 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.lang.Nullable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.enums.BookingRole;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.dto.BookingNewDto;
+import ru.practicum.shareit.booking.dto.BookingPageRequest;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.BookingConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -17,10 +26,19 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +47,8 @@ public class BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ApprovedBookingIndex approvedBookingIndex;
+    private final ItemLocks itemLocks;
 
     @Transactional
     public BookingDto createBooking(Long bookerId, BookingNewDto bookingDto) {
@@ -42,58 +62,266 @@ public class BookingService {
         return BookingMapper.toBookingDto(bookingRepository.save(booking));
     }
 
+    /**
+     * Создаёт бронирования пакетом. Вещи и подтверждённые периоды читаются для всего пакета двумя запросами,
+     * вставки уходят JDBC-пакетами в одной транзакции. Отказ по одной записи не мешает остальным.
+     */
+    @Transactional
+    public List<BookingBulkResultDto> createBookings(Long bookerId, List<BookingNewDto> bookingDtos) {
+        User booker = getUser(bookerId);
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(BookingNewDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemIds.isEmpty() ? Map.of() : itemRepository.findAllWithOwnerByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<BookingInterval>> approved = findApprovedIntervals(items.keySet(), bookingDtos);
+
+        BookingBulkResultDto[] results = new BookingBulkResultDto[bookingDtos.size()];
+        Map<Integer, Booking> bookings = new LinkedHashMap<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingNewDto bookingDto = bookingDtos.get(i);
+            Item item = bookingDto.getItemId() == null ? null : items.get(bookingDto.getItemId());
+            String error = validateBulkEntry(bookingDto, item, approved);
+            if (error != null) {
+                results[i] = BookingBulkResultDto.failed(i, error);
+            } else {
+                bookings.put(i, BookingMapper.toBooking(bookingDto, item, booker, BookingStatus.WAITING));
+            }
+        }
+        bookingRepository.saveAll(bookings.values());
+        bookings.forEach((i, booking) ->
+                results[i] = BookingBulkResultDto.succeeded(i, BookingMapper.toBookingDto(booking)));
+        return List.of(results);
+    }
+
+    /**
+     * Статус меняется одним условным UPDATE; если он не затронул строк, отдельный запрос выясняет причину.
+     * Подтверждения одной вещи идут по очереди под {@link ItemLocks}, и пересечение проверяется до записи:
+     * пересекающееся подтверждение отклоняется без UPDATE, после проверки владельца и статуса.
+     * В PostgreSQL то же гарантирует ограничение {@code bookings_approved_no_overlap} и для нескольких
+     * экземпляров сервера.
+     */
     @Transactional
     public BookingDto updateBooking(Long ownerId, Long bookingId, boolean approved) {
-        Booking booking = getBooking(bookingId);
-        validateBookingOwner(ownerId, booking);
-        validateBookingStatus(booking);
+        if (!approved) {
+            transition(ownerId, bookingId, BookingStatus.REJECTED);
+            return getBookingView(ownerId, bookingId);
+        }
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        BookingInterval interval = bookingRepository.findIntervalById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование с таким id не найдено"));
+        itemLocks.lockUntilCompletion(interval.itemId());
+        // Индекс читается до записи, чтобы не увидеть собственное незафиксированное подтверждение.
+        if (approvedBookingIndex.overlaps(interval.itemId(), interval.start(), interval.end())) {
+            validateTransition(ownerId, bookingId);
+            throw new BookingConflictException("Предмет уже забронирован на эти даты");
+        }
+        transition(ownerId, bookingId, BookingStatus.APPROVED);
+        approvedBookingIndex.approved(interval.itemId(), interval);
+        return getBookingView(ownerId, bookingId);
+    }
+
+    /**
+     * Подтверждает и отклоняет бронирования пакетом. Владелец и статус проверяются по одной выборке,
+     * подтверждения сверяются с подтверждёнными периодами и друг с другом под блокировками своих вещей,
+     * изменения уходят пакетом версионных UPDATE. Если бронирование пакета параллельно успели изменить,
+     * пакет отклоняется целиком.
+     */
+    @Transactional
+    public List<BookingBulkResultDto> decideBookings(Long ownerId, List<BookingDecisionDto> decisions) {
+        Set<Long> bookingIds = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Booking> bookings = bookingIds.isEmpty() ? Map.of() : bookingRepository
+                .findAllDetailedByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        BookingBulkResultDto[] results = new BookingBulkResultDto[decisions.size()];
+        Map<Integer, Booking> accepted = new LinkedHashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            Booking booking = decision.getBookingId() == null ? null : bookings.get(decision.getBookingId());
+            String error = validateDecision(ownerId, decision, booking, seen);
+            if (error != null) {
+                results[i] = BookingBulkResultDto.failed(i, error);
+            } else {
+                accepted.put(i, booking);
+            }
+        }
+
+        List<Booking> approvals = accepted.entrySet().stream()
+                .filter(entry -> decisions.get(entry.getKey()).getApproved())
+                .map(Map.Entry::getValue)
+                .toList();
+        Map<Long, List<BookingInterval>> approved = lockApprovedIntervals(approvals);
+        Iterator<Map.Entry<Integer, Booking>> entries = accepted.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Integer, Booking> entry = entries.next();
+            Booking booking = entry.getValue();
+            if (!decisions.get(entry.getKey()).getApproved()) {
+                booking.setStatus(BookingStatus.REJECTED);
+                continue;
+            }
+            // Пересечения проверяются и с подтверждениями этого же пакета: выигрывает запись, стоящая раньше.
+            List<BookingInterval> itemApproved = approved.computeIfAbsent(booking.getItem().getId(),
+                    itemId -> new ArrayList<>());
+            if (itemApproved.stream().anyMatch(interval -> interval.intersects(booking.getStart(), booking.getEnd()))) {
+                results[entry.getKey()] = BookingBulkResultDto.failed(entry.getKey(),
+                        "Предмет уже забронирован на эти даты");
+                entries.remove();
+                continue;
+            }
+            BookingInterval interval = new BookingInterval(booking.getId(), booking.getItem().getId(),
+                    booking.getStart(), booking.getEnd());
+            itemApproved.add(interval);
+            booking.setStatus(BookingStatus.APPROVED);
+            approvedBookingIndex.approved(interval.itemId(), interval);
+        }
+
+        try {
+            bookingRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+            throw new BookingConflictException("Бронирования пакета изменились во время обработки, повторите запрос");
+        }
+        accepted.forEach((i, booking) ->
+                results[i] = BookingBulkResultDto.succeeded(i, BookingMapper.toBookingDto(booking)));
+        return List.of(results);
     }
 
     public BookingDto findBookingByIdAndBookerIdOrOwnerId(Long userId, Long bookingId) {
-        return bookingRepository.findById(bookingId)
-                .filter(booking -> isBookerOrOwner(userId, booking))
-                .map(BookingMapper::toBookingDto)
-                .orElseThrow(() -> new NotFoundException("Бронирование с таким id не найдено"));
+        return getBookingView(userId, bookingId);
     }
 
     public List<BookingDto> findBookingsByState(Long bookerId, BookingState state) {
-        return findBookings(state, bookerId, false);
+        return findBookingsByState(bookerId, state, BookingPageRequest.unpaged());
+    }
+
+    public List<BookingDto> findBookingsByState(Long bookerId, BookingState state, BookingPageRequest page) {
+        getUser(bookerId);
+        return bookingRepository.findPage(BookingRole.BOOKER, bookerId, state, LocalDateTime.now(), page);
+    }
+
+    /**
+     * Бронирования пользователя одной вещи — страница вещи в gateway не тянет всю историю бронирований.
+     */
+    public List<BookingDto> findBookingsByItem(Long bookerId, Long itemId, BookingState state,
+                                               BookingPageRequest page) {
+        getUser(bookerId);
+        return bookingRepository.findItemPage(BookingRole.BOOKER, bookerId, itemId, state, LocalDateTime.now(), page);
     }
 
     public List<BookingDto> findBookingsByOwnerId(Long ownerId, BookingState state) {
-        return findBookings(state, ownerId, true);
-    }
-
-    private List<BookingDto> findBookings(BookingState state, Long userId, boolean isOwner) {
-        User user = getUser(userId);
-        List<Booking> bookings = getBookingQueryMap(isOwner).get(state).apply(userId);
-        return bookings.stream().map(BookingMapper::toBookingDto).toList();
-    }
-
-    private Map<BookingState, Function<Long, List<Booking>>> getBookingQueryMap(boolean isOwner) {
-        return Map.of(
-                BookingState.ALL, id -> isOwner
-                        ? bookingRepository.findAllByItemOwnerIdOrderByStartDesc(id)
-                        : bookingRepository.findAllByBookerIdOrderByStartDesc(id),
-                BookingState.CURRENT, id -> isOwner
-                        ? bookingRepository.findAllByItemOwnerIdAndStatusAndEndIsAfterOrderByStartDesc(id, BookingStatus.APPROVED, LocalDateTime.now())
-                        : bookingRepository.findAllByBookerIdAndStatusAndEndIsAfterOrderByStartDesc(id, BookingStatus.APPROVED, LocalDateTime.now()),
-                BookingState.PAST, id -> isOwner
-                        ? bookingRepository.findAllByItemOwnerIdAndStatusAndEndIsBeforeOrderByStartDesc(id, BookingStatus.APPROVED, LocalDateTime.now())
-                        : bookingRepository.findAllByBookerIdAndStatusAndEndIsBeforeOrderByStartDesc(id, BookingStatus.APPROVED, LocalDateTime.now()),
-                BookingState.FUTURE, id -> isOwner
-                        ? bookingRepository.findAllByItemOwnerIdAndStatusAndStartIsAfterOrderByStartDesc(id, BookingStatus.APPROVED, LocalDateTime.now())
-                        : bookingRepository.findAllByBookerIdAndStatusAndStartIsAfterOrderByStartDesc(id, BookingStatus.APPROVED, LocalDateTime.now()),
-                BookingState.WAITING, id -> isOwner
-                        ? bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(id, BookingStatus.WAITING)
-                        : bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(id, BookingStatus.WAITING),
-                BookingState.REJECTED, id -> isOwner
-                        ? bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(id, BookingStatus.REJECTED)
-                        : bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(id, BookingStatus.REJECTED)
-        );
+        return findBookingsByOwnerId(ownerId, state, BookingPageRequest.unpaged());
+    }
+
+    public List<BookingDto> findBookingsByOwnerId(Long ownerId, BookingState state, BookingPageRequest page) {
+        getUser(ownerId);
+        return bookingRepository.findPage(BookingRole.OWNER, ownerId, state, LocalDateTime.now(), page);
+    }
+
+    private void transition(Long ownerId, Long bookingId, BookingStatus status) {
+        int updated;
+        try {
+            updated = bookingRepository.updateStatus(bookingId, ownerId, BookingStatus.WAITING, status);
+        } catch (DataIntegrityViolationException e) {
+            throw new BookingConflictException("Предмет уже забронирован на эти даты");
+        }
+        if (updated == 0) {
+            validateTransition(ownerId, bookingId);
+            throw new IllegalStateException("Бронирование " + bookingId + " не удалось перевести в " + status);
+        }
+    }
+
+    private void validateTransition(Long ownerId, Long bookingId) {
+        BookingRepository.StatusAndOwner current = bookingRepository.findStatusAndOwnerById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование с таким id не найдено"));
+        validateBookingOwner(ownerId, current.getOwnerId());
+        validateBookingStatus(current.getStatus());
+    }
+
+    private Map<Long, List<BookingInterval>> findApprovedIntervals(Collection<Long> itemIds,
+                                                                   List<BookingNewDto> bookingDtos) {
+        LocalDateTime from = bookingDtos.stream()
+                .map(BookingNewDto::getStart)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+        LocalDateTime to = bookingDtos.stream()
+                .map(BookingNewDto::getEnd)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        if (itemIds.isEmpty() || from == null || to == null) {
+            return Map.of();
+        }
+        return bookingRepository.findIntervals(itemIds, BookingStatus.APPROVED, from, to).stream()
+                .collect(Collectors.groupingBy(BookingInterval::itemId));
+    }
+
+    @Nullable
+    private static String validateBulkEntry(BookingNewDto bookingDto, @Nullable Item item,
+                                            Map<Long, List<BookingInterval>> approved) {
+        if (item == null) {
+            return "Предмет с таким id не найден";
+        }
+        if (bookingDto.getStart() == null || bookingDto.getEnd() == null) {
+            return "Не указаны даты бронирования";
+        }
+        if (!item.getAvailable()) {
+            return "Предмет уже забронирован";
+        }
+        for (BookingInterval interval : approved.getOrDefault(item.getId(), List.of())) {
+            if (interval.intersects(bookingDto.getStart(), bookingDto.getEnd())) {
+                return "Предмет занят в указанные даты";
+            }
+        }
+        return null;
+    }
+
+    private Map<Long, List<BookingInterval>> lockApprovedIntervals(List<Booking> approvals) {
+        Map<Long, List<BookingInterval>> approved = new HashMap<>();
+        if (approvals.isEmpty()) {
+            return approved;
+        }
+        Set<Long> itemIds = approvals.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        itemLocks.lockUntilCompletion(itemIds);
+        LocalDateTime from = approvals.stream().map(Booking::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = approvals.stream().map(Booking::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+        for (BookingInterval interval : bookingRepository.findIntervals(itemIds, BookingStatus.APPROVED, from, to)) {
+            approved.computeIfAbsent(interval.itemId(), itemId -> new ArrayList<>()).add(interval);
+        }
+        return approved;
+    }
+
+    @Nullable
+    private static String validateDecision(Long ownerId, BookingDecisionDto decision, @Nullable Booking booking,
+                                           Set<Long> seen) {
+        if (booking == null) {
+            return "Бронирование с таким id не найдено";
+        }
+        if (!seen.add(booking.getId())) {
+            return "Бронирование уже указано в пакете";
+        }
+        if (decision.getApproved() == null) {
+            return "Не указано решение по бронированию";
+        }
+        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+            return "Пользователь не является владельцем предмета";
+        }
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            return "Бронирование уже подтверждено";
+        }
+        return null;
+    }
+
+    private BookingDto getBookingView(Long userId, Long bookingId) {
+        return bookingRepository.findViewByIdAndBookerIdOrOwnerId(bookingId, userId)
+                .orElseThrow(() -> new NotFoundException("Бронирование с таким id не найдено"));
     }
 
     private void validateItemAvailability(Item item) {
@@ -103,46 +331,30 @@ public class BookingService {
     }
 
     private void validateBookingDates(BookingNewDto bookingDto) {
-        boolean hasOverlappingBookings = !bookingRepository.findAllWithIntersectionDates(
-                bookingDto.getItemId(),
-                Set.of(BookingStatus.APPROVED),
-                bookingDto.getStart(),
-                bookingDto.getEnd()
-        ).isEmpty();
-
-        if (hasOverlappingBookings) {
+        if (approvedBookingIndex.overlaps(bookingDto.getItemId(), bookingDto.getStart(), bookingDto.getEnd())) {
             throw new NotFoundException("Предмет занят в указанные даты");
         }
     }
 
-    private void validateBookingOwner(Long ownerId, Booking booking) {
-        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+    private void validateBookingOwner(Long ownerId, Long itemOwnerId) {
+        if (!itemOwnerId.equals(ownerId)) {
             throw new RuntimeException("Пользователь не является владельцем предмета");
         }
     }
 
-    private void validateBookingStatus(Booking booking) {
-        if (booking.getStatus() != BookingStatus.WAITING) {
+    private void validateBookingStatus(BookingStatus status) {
+        if (status != BookingStatus.WAITING) {
             throw new RuntimeException("Бронирование уже подтверждено");
         }
     }
 
-    private boolean isBookerOrOwner(Long userId, Booking booking) {
-        return booking.getBooker().getId().equals(userId) || booking.getItem().getOwner().getId().equals(userId);
-    }
-
     private User getUser(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с таким id не найден"));
     }
 
     private Item getItem(Long itemId) {
-        return itemRepository.findById(itemId)
+        return itemRepository.findWithOwnerById(itemId)
                 .orElseThrow(() -> new NotFoundException("Предмет с таким id не найден"));
     }
-
-    private Booking getBooking(Long bookingId) {
-        return bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Бронирование с таким id не найдено"));
-    }
 }
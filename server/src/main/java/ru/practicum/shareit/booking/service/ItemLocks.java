@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.config.RequestDeadline;
+import ru.practicum.shareit.exceptions.DeadlineExceededException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Полосатые блокировки по вещам: решения по бронированиям одной вещи идут по очереди,
+ * разные вещи почти никогда не делят полосу. Блокировка держится до завершения транзакции,
+ * то есть и после того, как подтверждение попало в {@link ApprovedBookingIndex}.
+ */
+@Component
+public class ItemLocks {
+    private final ReentrantLock[] stripes;
+
+    public ItemLocks(@Value("${shareit.booking.lock-stripes:256}") int stripes) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Берёт блокировку вещи до конца текущей транзакции, ожидая не дольше срока запроса.
+     */
+    public void lockUntilCompletion(Long itemId) {
+        lockUntilCompletion(List.of(itemId));
+    }
+
+    /**
+     * Берёт блокировки нескольких вещей до конца текущей транзакции. Полосы захватываются по возрастанию
+     * номера, поэтому два пакета с пересекающимися вещами не ждут друг друга по кругу.
+     */
+    public void lockUntilCompletion(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи берётся только внутри транзакции");
+        }
+        SortedSet<Integer> indexes = new TreeSet<>();
+        itemIds.forEach(itemId -> indexes.add(Math.floorMod(Long.hashCode(itemId), stripes.length)));
+        for (int index : indexes) {
+            lock(stripes[index], itemIds);
+        }
+    }
+
+    private static void lock(ReentrantLock lock, Collection<Long> itemIds) {
+        try {
+            if (!lock.tryLock(Math.max(0, RequestDeadline.remainingMillis()), TimeUnit.MILLISECONDS)) {
+                throw new DeadlineExceededException("Истёк срок ожидания блокировки вещей " + itemIds);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Ожидание блокировки вещей " + itemIds + " прервано");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
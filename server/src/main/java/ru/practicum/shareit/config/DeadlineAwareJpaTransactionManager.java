@@ -0,0 +1,47 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exceptions.DeadlineExceededException;
+
+/**
+ * Ограничивает транзакцию оставшимся сроком запроса: Spring передаёт его запросам как тайм-аут
+ * JDBC-выражения и перед каждым запросом проверяет, не истёк ли он. Транзакция, для которой
+ * срок уже истёк, не начинается.
+ */
+public class DeadlineAwareJpaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        if (!RequestDeadline.isSet()) {
+            return timeout;
+        }
+        long remaining = RequestDeadline.remainingMillis();
+        if (remaining <= 0) {
+            throw new DeadlineExceededException("Истёк срок выполнения запроса");
+        }
+        int seconds = (int) Math.min(Integer.MAX_VALUE, (remaining + 999) / 1000);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? seconds : Math.min(timeout, seconds);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        if (!RequestDeadline.isSet()) {
+            return;
+        }
+        // determineTimeout работает в секундах; уточняем срок до миллисекунд.
+        long remaining = RequestDeadline.remainingMillis();
+        int timeout = definition.getTimeout();
+        if (timeout == TransactionDefinition.TIMEOUT_DEFAULT || timeout * 1000L > remaining) {
+            EntityManagerHolder holder =
+                    (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+            if (holder != null) {
+                holder.setTimeoutInMillis(Math.max(1, remaining));
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+/**
+ * Срок выполнения запроса от gateway: фильтр, читающий заголовок, и менеджер транзакций,
+ * ограничивающий по нему транзакции и JDBC-запросы.
+ */
+@Configuration
+public class DeadlineConfig {
+
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<DeadlineFilter> registration = new FilterRegistrationBean<>(new DeadlineFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        registration.setName("deadlineFilter");
+        return registration;
+    }
+
+    @Bean
+    public JpaTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new DeadlineAwareJpaTransactionManager();
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+}
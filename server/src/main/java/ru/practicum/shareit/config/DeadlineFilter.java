@@ -0,0 +1,72 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Устанавливает срок выполнения запроса из заголовка {@value RequestDeadline#HEADER}. Запрос,
+ * пришедший с истёкшим сроком, сразу получает 504; запросы, отменённые по сроку, считаются
+ * в {@code shareit.requests.cancelled} по эндпоинтам.
+ */
+@RequiredArgsConstructor
+public class DeadlineFilter extends OncePerRequestFilter {
+    private static final byte[] EXPIRED = "{\"error\":\"Истёк срок выполнения запроса\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long timeoutMillis;
+        try {
+            String header = request.getHeader(RequestDeadline.HEADER);
+            if (header == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            timeoutMillis = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (timeoutMillis <= 0) {
+            cancelled(request, "expired_on_arrival").increment();
+            response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(EXPIRED);
+            return;
+        }
+
+        RequestDeadline.set(System.nanoTime() + timeoutMillis * 1_000_000L);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+        if (response.getStatus() == HttpStatus.GATEWAY_TIMEOUT.value()) {
+            cancelled(request, "deadline_exceeded").increment();
+        }
+    }
+
+    private Counter cancelled(HttpServletRequest request, String reason) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return meterRegistry.counter("shareit.requests.cancelled",
+                "method", request.getMethod(),
+                "uri", pattern != null ? pattern.toString() : "UNKNOWN",
+                "reason", reason);
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ETag для часто читаемых ресурсов: gateway перепроверяет свой кэш через If-None-Match
+ * и при неизменном ответе получает 304 без тела.
+ */
+@Configuration
+public class EtagConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/items/*", "/requests/*", "/users/*");
+        registration.setName("etagFilter");
+        return registration;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.config;
+
+/**
+ * Срок выполнения текущего запроса, переданный gateway в заголовке {@value #HEADER}
+ * как оставшееся время в миллисекундах.
+ */
+public final class RequestDeadline {
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static void set(long deadlineNanos) {
+        DEADLINE_NANOS.set(deadlineNanos);
+    }
+
+    public static void clear() {
+        DEADLINE_NANOS.remove();
+    }
+
+    public static boolean isSet() {
+        return DEADLINE_NANOS.get() != null;
+    }
+
+    /**
+     * @return сколько миллисекунд осталось до срока; может быть отрицательным. Без срока — {@link Long#MAX_VALUE}
+     */
+    public static long remainingMillis() {
+        Long deadline = DEADLINE_NANOS.get();
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.floorDiv(deadline - System.nanoTime(), 1_000_000L);
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Фоновые задачи сервера, например сверка индекса подтверждённых бронирований с базой.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -18,6 +18,8 @@ public class ItemDto {
 
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Long id;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long ownerId;
     private String name;
     private String description;
     private Boolean available;
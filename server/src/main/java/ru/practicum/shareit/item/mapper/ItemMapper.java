@@ -14,6 +14,7 @@ public class ItemMapper {
     public static ItemDto toItemDto(Item item) {
         ItemDto itemDto = new ItemDto();
         itemDto.setId(item.getId());
+        itemDto.setOwnerId(item.getOwner() != null ? item.getOwner().getId() : null);
         itemDto.setName(item.getName());
         itemDto.setDescription(item.getDescription());
         itemDto.setAvailable(item.getAvailable());
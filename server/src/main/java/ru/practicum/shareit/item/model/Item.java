@@ -42,4 +42,7 @@ public class Item {
 
     @Transient
     private List<Comment> comments = new ArrayList<>();
+
+    @Version
+    private Long version;
 }
@@ -4,7 +4,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByOwnerId(Long ownerId);
@@ -18,4 +20,10 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByRequestId(Long requestId);
 
     List<Item> findAllByRequestIdIn(List<Long> itemRequestIds);
+
+    @Query("select i from Item i join fetch i.owner left join fetch i.request where i.id in :ids")
+    List<Item> findAllWithOwnerByIdIn(Collection<Long> ids);
+
+    @Query("select i from Item i join fetch i.owner left join fetch i.request where i.id = :id")
+    Optional<Item> findWithOwnerById(Long id);
 }
@@ -0,0 +1,35 @@
+-- Ограничение bookings_approved_no_overlap создаётся один раз: при следующих запусках блок сразу выходит.
+-- Тело DO в одинарных кавычках, а не в $$: иначе загрузчик скриптов Spring разрежет его по точкам с запятой.
+-- Если в таблице уже есть пересекающиеся подтверждённые бронирования или нет прав на btree_gist,
+-- ограничение не создаётся, а в журнал PostgreSQL пишется предупреждение; приложение при этом запускается.
+DO '
+DECLARE
+    overlapping TEXT;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''bookings_approved_no_overlap'') THEN
+        RETURN;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_extension WHERE extname = ''btree_gist'') THEN
+        CREATE EXTENSION btree_gist;
+    END IF;
+    SELECT string_agg(a.id || ''/'' || b.id, '', '') INTO overlapping
+    FROM bookings a
+    JOIN bookings b ON b.item_id = a.item_id AND b.id > a.id
+    WHERE a.status = ''APPROVED'' AND b.status = ''APPROVED''
+      AND a.start_time <= b.end_time AND b.start_time <= a.end_time;
+    IF overlapping IS NOT NULL THEN
+        RAISE WARNING ''bookings_approved_no_overlap не создано, пересекаются подтверждённые бронирования: %'',
+            overlapping;
+        RETURN;
+    END IF;
+    ALTER TABLE bookings ADD CONSTRAINT bookings_approved_no_overlap
+        EXCLUDE USING gist (item_id WITH =, tsrange(start_time, end_time, ''[]'') WITH &&)
+        WHERE (status = ''APPROVED'');
+EXCEPTION
+    WHEN insufficient_privilege THEN
+        RAISE WARNING ''bookings_approved_no_overlap не создано: нет прав на CREATE EXTENSION btree_gist'';
+END';
+
+-- Бронирования, созданные до перехода на последовательность, получили id из IDENTITY-столбца.
+SELECT setval('bookings_seq', (SELECT MAX(id) FROM bookings))
+WHERE (SELECT MAX(id) FROM bookings) > (SELECT last_value FROM bookings_seq);
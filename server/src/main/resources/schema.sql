@@ -49,3 +49,15 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
     CONSTRAINT fk_comment_user FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
 );
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_interval ON bookings (item_id, start_time, end_time);
@@ -0,0 +1,24 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Считает SQL-запросы, подготовленные Hibernate. Нужен {@code hibernate.generate_statistics=true}.
+ */
+public class SqlStatementCounter {
+    private final Statistics statistics;
+
+    public SqlStatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    public long count() {
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingNewDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ApprovedBookingIndex;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Индекс работает с зафиксированными данными, поэтому тест не транзакционный.
+ */
+@SpringBootTest
+public class ApprovedBookingIndexTest {
+
+    @Autowired
+    private ApprovedBookingIndex index;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private LocalDateTime start;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        // Вещи прошлых тестов удалены в обход индекса — сверка их перечитывает.
+        index.verify();
+
+        start = LocalDateTime.now().plusDays(1);
+        owner = user("owner@mail.ru");
+        booker = user("booker@mail.ru");
+        item = new Item();
+        item.setName("Name");
+        item.setDescription("Description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        itemRepository.save(item);
+    }
+
+    @Test
+    void approvalIsVisibleWithoutReload() {
+        assertFalse(index.overlaps(item.getId(), start, start.plusDays(2)));
+
+        BookingDto booking = bookingService.createBooking(booker.getId(), newBooking(start, start.plusDays(2)));
+        assertFalse(index.overlaps(item.getId(), start, start.plusDays(2)));
+
+        bookingService.updateBooking(owner.getId(), booking.getId(), true);
+        assertTrue(index.overlaps(item.getId(), start.plusDays(1), start.plusDays(3)));
+        assertTrue(index.overlaps(item.getId(), start.minusDays(1), start));
+        assertFalse(index.overlaps(item.getId(), start.plusDays(3), start.plusDays(4)));
+        assertThrows(RuntimeException.class,
+                () -> bookingService.createBooking(booker.getId(), newBooking(start.plusHours(1), start.plusHours(2))));
+        assertEquals(0, index.verify());
+    }
+
+    @Test
+    void rejectionAndRolledBackApprovalDoNotChangeIndex() {
+        BookingDto rejected = bookingService.createBooking(booker.getId(), newBooking(start, start.plusDays(1)));
+        BookingDto rolledBack = bookingService.createBooking(booker.getId(), newBooking(start.plusDays(2), start.plusDays(3)));
+        assertFalse(index.overlaps(item.getId(), start, start.plusDays(3)));
+
+        bookingService.updateBooking(owner.getId(), rejected.getId(), false);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bookingService.updateBooking(owner.getId(), rolledBack.getId(), true);
+            status.setRollbackOnly();
+        });
+
+        assertFalse(index.overlaps(item.getId(), start, start.plusDays(3)));
+        assertEquals(0, index.verify());
+    }
+
+    @Test
+    void verifyReloadsItemChangedBehindIndex() {
+        assertFalse(index.overlaps(item.getId(), start, start.plusDays(1)));
+
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+        assertFalse(index.overlaps(item.getId(), start, start.plusDays(1)));
+
+        assertEquals(1, index.verify());
+        assertTrue(index.overlaps(item.getId(), start, start.plusDays(1)));
+        assertEquals(0, index.verify());
+    }
+
+    @Test
+    void periodBeforeRetentionHorizonIsCheckedInDatabase() {
+        LocalDateTime past = LocalDateTime.now().minusDays(5);
+        approvedBooking(past, past.plusDays(2));
+
+        assertTrue(index.overlaps(item.getId(), past.plusDays(1), past.plusDays(1).plusHours(1)));
+        assertFalse(index.overlaps(item.getId(), start, start.plusDays(1)));
+        assertEquals(0, index.verify());
+    }
+
+    @Test
+    void idleItemIsEvictedAndReloaded() {
+        ApprovedBookingIndex evicting = new ApprovedBookingIndex(bookingRepository, transactionManager,
+                Duration.ofDays(1), Duration.ZERO);
+        assertFalse(evicting.overlaps(item.getId(), start, start.plusDays(1)));
+
+        approvedBooking(start, start.plusDays(1));
+
+        assertEquals(0, evicting.verify());
+        assertTrue(evicting.overlaps(item.getId(), start, start.plusDays(1)));
+    }
+
+    private void approvedBooking(LocalDateTime from, LocalDateTime to) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(from);
+        booking.setEnd(to);
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+    }
+
+    private BookingNewDto newBooking(LocalDateTime from, LocalDateTime to) {
+        BookingNewDto dto = new BookingNewDto();
+        dto.setItemId(item.getId());
+        dto.setStart(from);
+        dto.setEnd(to);
+        return dto;
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setName("Name");
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,179 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingNewDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ApprovedBookingIndex;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.BookingConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Параллельные подтверждения пересекающихся бронирований, по одному и пакетами: на каждую вещь подтверждается
+ * ровно одно.
+ */
+@SpringBootTest
+public class BookingApprovalStressTest {
+    private static final int ITEMS = 4;
+    private static final int BOOKINGS_PER_ITEM = 25;
+    private static final int THREADS = 16;
+    private static final int BULK_SIZE = 10;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ApprovedBookingIndex approvedBookingIndex;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private final List<Item> items = new ArrayList<>();
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        approvedBookingIndex.verify();
+        items.clear();
+        bookingIds.clear();
+
+        owner = user("owner@mail.ru");
+        User booker = user("booker@mail.ru");
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = new Item();
+            item.setName("Name " + i);
+            item.setDescription("Description");
+            item.setAvailable(true);
+            item.setOwner(owner);
+            items.add(itemRepository.save(item));
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                // Все бронирования вещи пересекаются в точке start + 1 час.
+                BookingNewDto dto = new BookingNewDto();
+                dto.setItemId(item.getId());
+                dto.setStart(start.plusMinutes(j));
+                dto.setEnd(start.plusHours(2).plusMinutes(j));
+                bookingIds.add(bookingService.createBooking(booker.getId(), dto).getId());
+            }
+        }
+        Collections.shuffle(bookingIds);
+    }
+
+    @Test
+    void concurrentApprovalsNeverDoubleBook() throws Exception {
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch startGate = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long bookingId : bookingIds) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    try {
+                        bookingService.updateBooking(owner.getId(), bookingId, true);
+                        approved.incrementAndGet();
+                    } catch (BookingConflictException e) {
+                        conflicts.incrementAndGet();
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                    return null;
+                }));
+            }
+            startGate.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(failures.isEmpty(), () -> "Неожиданные ошибки: " + failures);
+        assertEquals(ITEMS, approved.get());
+        assertEquals(ITEMS * (BOOKINGS_PER_ITEM - 1), conflicts.get());
+        for (Item item : items) {
+            assertEquals(1, bookingRepository.findIntervals(item.getId(), BookingStatus.APPROVED).size());
+        }
+        assertEquals(0, approvedBookingIndex.verify());
+    }
+
+    @Test
+    void concurrentBulkAndSingleApprovalsNeverDoubleBook() throws Exception {
+        // Половина решений идёт пакетами по нескольку вещей сразу, половина — по одному.
+        List<Callable<Integer>> decisions = new ArrayList<>();
+        int half = bookingIds.size() / 2;
+        for (int i = 0; i < half; i += BULK_SIZE) {
+            List<BookingDecisionDto> batch = bookingIds.subList(i, Math.min(i + BULK_SIZE, half)).stream()
+                    .map(bookingId -> new BookingDecisionDto(bookingId, true))
+                    .toList();
+            decisions.add(() -> (int) bookingService.decideBookings(owner.getId(), batch).stream()
+                    .filter(result -> result.booking() != null)
+                    .count());
+        }
+        for (Long bookingId : bookingIds.subList(half, bookingIds.size())) {
+            decisions.add(() -> {
+                try {
+                    bookingService.updateBooking(owner.getId(), bookingId, true);
+                    return 1;
+                } catch (BookingConflictException e) {
+                    return 0;
+                }
+            });
+        }
+
+        int approved = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Integer> future : executor.invokeAll(decisions)) {
+                approved += future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(ITEMS, approved);
+        for (Item item : items) {
+            assertEquals(1, bookingRepository.findIntervals(item.getId(), BookingStatus.APPROVED).size());
+        }
+        assertEquals(0, approvedBookingIndex.verify());
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setName("Name");
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+}
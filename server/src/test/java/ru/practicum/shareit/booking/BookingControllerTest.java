@@ -10,10 +10,17 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingBulkNewDto;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingNewDto;
+import ru.practicum.shareit.booking.dto.BookingPageRequest;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -115,6 +122,7 @@ public class BookingControllerTest {
         user.setId(userDto.getId());
         user.setName(userDto.getName());
         user.setEmail(userDto.getEmail());
+        item.setOwner(user);
 
         userDtoList = new ArrayList<>();
         for (long i = 1; i <= ENTITIES_COUNT; i++) {
@@ -129,8 +137,8 @@ public class BookingControllerTest {
                 .id(1L)
                 .start(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusMinutes(1))
                 .end(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1))
-                .item(item)
-                .booker(user)
+                .item(BookingMapper.toItemView(item))
+                .booker(BookingMapper.toUserView(user))
                 .status(BookingStatus.WAITING)
                 .build();
 
@@ -153,8 +161,8 @@ public class BookingControllerTest {
                     .id(i)
                     .start(LocalDateTime.now().plusMinutes(1))
                     .end(LocalDateTime.now().plusDays(1))
-                    .item(item)
-                    .booker(user)
+                    .item(BookingMapper.toItemView(item))
+                    .booker(BookingMapper.toUserView(user))
                     .status(BookingStatus.WAITING)
                     .build());
         }
@@ -180,6 +188,54 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).createBooking(eq(userId), eq(createBookingDto));
     }
 
+    @Test
+    void createBookingsTest() throws Exception {
+        Long userId = 1L;
+        BookingBulkNewDto bulkDto = new BookingBulkNewDto(List.of(createBookingDto, createBookingDto));
+
+        when(bookingService.createBookings(anyLong(), anyList()))
+                .thenReturn(List.of(BookingBulkResultDto.succeeded(0, bookingDto),
+                        BookingBulkResultDto.failed(1, "Предмет занят в указанные даты")));
+
+        mvc.perform(post("/bookings/bulk")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bulkDto))
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].booking.id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("Предмет занят в указанные даты")));
+
+        verify(bookingService, times(1)).createBookings(eq(userId), eq(bulkDto.getBookings()));
+    }
+
+    @Test
+    void decideBookingsTest() throws Exception {
+        Long userId = 1L;
+        BookingBulkDecisionDto decisionsDto = new BookingBulkDecisionDto(List.of(
+                new BookingDecisionDto(bookingDto.getId(), true),
+                new BookingDecisionDto(bookingDto.getId() + 1, false)));
+        bookingDto.setStatus(BookingStatus.APPROVED);
+
+        when(bookingService.decideBookings(anyLong(), anyList()))
+                .thenReturn(List.of(BookingBulkResultDto.succeeded(0, bookingDto),
+                        BookingBulkResultDto.failed(1, "Бронирование с таким id не найдено")));
+
+        mvc.perform(patch("/bookings/bulk")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(decisionsDto))
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].booking.status", is(BookingStatus.APPROVED.name())))
+                .andExpect(jsonPath("$[1].error", is("Бронирование с таким id не найдено")));
+
+        verify(bookingService, times(1)).decideBookings(eq(userId), eq(decisionsDto.getDecisions()));
+    }
+
     @Test
     void updateBookingStatusTest() throws Exception {
         Long bookingId = 1L;
@@ -221,7 +277,7 @@ public class BookingControllerTest {
     void getAllUsersBookingByStatusTest() throws Exception {
         Long userId = 1L;
 
-        when(bookingService.findBookingsByState(Mockito.anyLong(), Mockito.any()))
+        when(bookingService.findBookingsByState(Mockito.anyLong(), Mockito.any(), Mockito.any()))
                 .thenReturn(bookingDtoList);
 
         mvc.perform(get("/bookings")
@@ -232,14 +288,31 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$", hasSize(bookingDtoList.size())))
                 .andExpect(jsonPath("$[0].id", is(bookingDtoList.getFirst().getId().intValue())));
 
-        verify(bookingService, times(1)).findBookingsByState(eq(userId), eq(BookingState.ALL));
+        verify(bookingService, times(1)).findBookingsByState(eq(userId), eq(BookingState.ALL),
+                eq(BookingPageRequest.unpaged()));
+    }
+
+    @Test
+    void getUserBookingsOfItemTest() throws Exception {
+        when(bookingService.findBookingsByItem(anyLong(), anyLong(), any(), any()))
+                .thenReturn(bookingDtoList);
+
+        mvc.perform(get("/bookings?itemId=2&from=0&size=20")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", bookingDto.getBooker().getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(bookingDtoList.size())));
+
+        verify(bookingService, times(1)).findBookingsByItem(eq(1L), eq(2L), eq(BookingState.ALL),
+                eq(BookingPageRequest.of(0, 20, null)));
+        verify(bookingService, never()).findBookingsByState(anyLong(), any(), any());
     }
 
     @Test
     void getAllBookingForUserItemsByStatusTest() throws Exception {
         Long userId = 1L;
 
-        when(bookingService.findBookingsByOwnerId(anyLong(), any()))
+        when(bookingService.findBookingsByOwnerId(anyLong(), any(), any()))
                 .thenReturn(bookingDtoList);
 
         mvc.perform(get("/bookings/owner")
@@ -250,7 +323,30 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.size()", is(bookingDtoList.size())))
                 .andExpect(jsonPath("$[0].id", is(bookingDtoList.getFirst().getId().intValue())));
 
-        verify(bookingService, times(1)).findBookingsByOwnerId(eq(userId), eq(BookingState.ALL));
+        verify(bookingService, times(1)).findBookingsByOwnerId(eq(userId), eq(BookingState.ALL),
+                eq(BookingPageRequest.unpaged()));
+    }
+
+    @Test
+    void getBookingsPageReturnsNextCursorTest() throws Exception {
+        Long userId = 1L;
+        BookingDto last = bookingDtoList.get(1);
+        BookingPageRequest page = new BookingPageRequest(0, 2, null);
+
+        when(bookingService.findBookingsByOwnerId(anyLong(), any(), any()))
+                .thenReturn(bookingDtoList.subList(0, 2));
+
+        mvc.perform(get("/bookings/owner")
+                        .param("from", "0")
+                        .param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        new BookingCursor(last.getStart(), last.getId()).encode()));
+
+        verify(bookingService, times(1)).findBookingsByOwnerId(eq(userId), eq(BookingState.ALL), eq(page));
     }
 
     private String generateRandomString(int targetStringLength) {
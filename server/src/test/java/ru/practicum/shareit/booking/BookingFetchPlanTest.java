@@ -0,0 +1,231 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.SqlStatementCounter;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingBulkNewDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingNewDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Число SQL-запросов на каждый эндпоинт бронирований не зависит от того, сколько разных вещей, владельцев,
+ * запросов и бронирующих попало в ответ.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BookingFetchPlanTest {
+    private static final int ITEMS = 3;
+    private static final int BULK_SIZE = 100;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private SqlStatementCounter statements;
+    private User owner;
+    private User booker;
+    private Item freeItem;
+    private final List<Booking> bookings = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+        bookings.clear();
+
+        statements = new SqlStatementCounter(entityManagerFactory);
+        owner = user("owner@mail.ru");
+        booker = user("booker@mail.ru");
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < ITEMS; i++) {
+            User requester = user("requester" + i + "@mail.ru");
+            ItemRequest request = new ItemRequest();
+            request.setDescription("Request " + i);
+            request.setRequester(requester);
+            request.setCreated(LocalDateTime.now());
+            itemRequestRepository.save(request);
+
+            Item item = item(request);
+            for (int j = 0; j < 2; j++) {
+                Booking booking = new Booking();
+                booking.setItem(item);
+                booking.setBooker(j == 0 ? booker : requester);
+                booking.setStart(start.plusDays(i * 10L + j * 2L));
+                booking.setEnd(start.plusDays(i * 10L + j * 2L + 1));
+                booking.setStatus(BookingStatus.WAITING);
+                bookings.add(bookingRepository.save(booking));
+            }
+        }
+        freeItem = item(null);
+    }
+
+    @Test
+    void ownerListIsOneQueryPerPage() throws Exception {
+        assertStatements(2, get("/bookings/owner").param("size", "10"))
+                .andExpect(jsonPath("$", hasSize(ITEMS * 2)))
+                .andExpect(jsonPath("$[0].booker.email").exists())
+                .andExpect(jsonPath("$[0].item.owner.email").exists())
+                .andExpect(jsonPath("$[0].item.request.description").exists())
+                .andExpect(jsonPath("$[0].item.comments", hasSize(0)));
+    }
+
+    @Test
+    void bookerListIsOneQueryPerPage() throws Exception {
+        assertStatements(2, get("/bookings").param("state", "WAITING"), booker)
+                .andExpect(jsonPath("$", hasSize(ITEMS)));
+    }
+
+    @Test
+    void bookingLookupIsOneQuery() throws Exception {
+        assertStatements(1, get("/bookings/{id}", bookings.getFirst().getId()))
+                .andExpect(jsonPath("$.item.id").value(bookings.getFirst().getItem().getId()));
+    }
+
+    @Test
+    void approvalReadsItemBookingAndIntervalsThenUpdates() throws Exception {
+        // Период бронирования, периоды вещи для индекса (вещь ещё не загружена), условный UPDATE и ответ.
+        assertStatements(4, patch("/bookings/{id}", bookings.getFirst().getId()).param("approved", "true"))
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+    }
+
+    @Test
+    void rejectionIsConditionalUpdateAndView() throws Exception {
+        assertStatements(2, patch("/bookings/{id}", bookings.getFirst().getId()).param("approved", "false"))
+                .andExpect(jsonPath("$.status").value("REJECTED"));
+    }
+
+    @Test
+    void bulkDecisionsReadOnceAndUpdateInOneBatch() throws Exception {
+        List<BookingDecisionDto> decisions = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            decisions.add(new BookingDecisionDto(bookings.get(i).getId(), i % 2 == 0));
+        }
+
+        // Бронирования с вещами и бронирующими, подтверждённые периоды вещей и один пакет UPDATE.
+        assertStatements(3, patch("/bookings/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BookingBulkDecisionDto(decisions))))
+                .andExpect(jsonPath("$", hasSize(bookings.size())))
+                .andExpect(jsonPath("$[0].booking.status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].booking.status").value("REJECTED"))
+                .andExpect(jsonPath("$[*].error", everyItem(nullValue())));
+    }
+
+    @Test
+    void creationLoadsBookerItemAndOverlapsThenInserts() throws Exception {
+        BookingNewDto newDto = new BookingNewDto();
+        newDto.setItemId(freeItem.getId());
+        newDto.setStart(LocalDateTime.now().plusDays(1));
+        newDto.setEnd(LocalDateTime.now().plusDays(2));
+
+        // Плюс выборка из последовательности, если закончился блок id.
+        assertStatements(4, 5, post("/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newDto)), booker)
+                .andExpect(jsonPath("$.item.id").value(freeItem.getId()));
+    }
+
+    @Test
+    void bulkCreationReadsOnceAndInsertsInBatches() throws Exception {
+        List<BookingNewDto> newDtos = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().plusDays(100);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            Item item = i % 2 == 0 ? freeItem : bookings.get(i % bookings.size()).getItem();
+            newDtos.add(new BookingNewDto(item.getId(), start.plusDays(i), start.plusDays(i).plusHours(1)));
+        }
+
+        // Бронирующий, вещи и подтверждённые периоды, INSERT-пакеты по 50 строк и блоки id по 50.
+        assertStatements(5, 8, post("/bookings/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BookingBulkNewDto(newDtos))), booker)
+                .andExpect(jsonPath("$", hasSize(BULK_SIZE)))
+                .andExpect(jsonPath("$[1].booking.item.id").value(bookings.get(1).getItem().getId()))
+                .andExpect(jsonPath("$[*].error", everyItem(nullValue())));
+    }
+
+    private ResultActions assertStatements(long expected,
+                                           MockHttpServletRequestBuilder request)
+            throws Exception {
+        return assertStatements(expected, request, owner);
+    }
+
+    private ResultActions assertStatements(long expected,
+                                           MockHttpServletRequestBuilder request,
+                                           User user) throws Exception {
+        return assertStatements(expected, expected, request, user);
+    }
+
+    private ResultActions assertStatements(long min,
+                                           long max,
+                                           MockHttpServletRequestBuilder request,
+                                           User user) throws Exception {
+        statements.reset();
+        ResultActions result = mvc.perform(request.header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk());
+        long count = statements.count();
+        assertTrue(count >= min && count <= max, "Ожидалось от " + min + " до " + max + " запросов, было " + count);
+        return result;
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setName("Name");
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+
+    private Item item(ItemRequest request) {
+        Item item = new Item();
+        item.setName("Name");
+        item.setDescription("Description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item.setRequest(request);
+        return itemRepository.save(item);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Запросы строятся диалектом PostgreSQL и выполняются на H2 в режиме совместимости с PostgreSQL.
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-pg;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+public class BookingQueryEnginePostgresTest extends BookingQueryEngineTest {
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageRequest;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Каждое состояние для обеих ролей на H2. {@link BookingQueryEnginePostgresTest} прогоняет те же проверки
+ * с диалектом PostgreSQL.
+ */
+@SpringBootTest
+@Transactional
+public class BookingQueryEngineTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private LocalDateTime now;
+    private User owner;
+    private User booker;
+    private Item item;
+    private final Map<BookingState, List<Long>> expected = new EnumMap<>(BookingState.class);
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        now = LocalDateTime.now().withNano(0);
+        owner = user("owner@mail.ru");
+        booker = user("booker@mail.ru");
+
+        item = item();
+
+        // Ожидаемый порядок — по убыванию начала, поэтому бронирования создаются от поздних к ранним.
+        Long rejected = booking(item, now.plusDays(6), now.plusDays(7), BookingStatus.REJECTED);
+        Long waiting = booking(item, now.plusDays(4), now.plusDays(5), BookingStatus.WAITING);
+        Long future = booking(item, now.plusDays(2), now.plusDays(3), BookingStatus.APPROVED);
+        Long current = booking(item, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED);
+        Long past = booking(item, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+
+        expected.put(BookingState.ALL, List.of(rejected, waiting, future, current, past));
+        expected.put(BookingState.CURRENT, List.of(current));
+        expected.put(BookingState.PAST, List.of(past));
+        expected.put(BookingState.FUTURE, List.of(future));
+        expected.put(BookingState.WAITING, List.of(waiting));
+        expected.put(BookingState.REJECTED, List.of(rejected));
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void findsBookerBookingsForEveryState(BookingState state) {
+        assertEquals(expected.get(state), ids(BookingRole.BOOKER, booker.getId(), state, BookingPageRequest.unpaged()));
+        assertEquals(List.of(), ids(BookingRole.BOOKER, owner.getId(), state, BookingPageRequest.unpaged()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void findsOwnerBookingsForEveryState(BookingState state) {
+        assertEquals(expected.get(state), ids(BookingRole.OWNER, owner.getId(), state, BookingPageRequest.unpaged()));
+        assertEquals(List.of(), ids(BookingRole.OWNER, booker.getId(), state, BookingPageRequest.unpaged()));
+    }
+
+    @Test
+    void pagesByOffsetAndCursor() {
+        List<Long> byCursor = new ArrayList<>();
+        BookingPageRequest page = new BookingPageRequest(0, 2, null);
+        while (page != null) {
+            List<BookingDto> bookings = bookingRepository.findPage(BookingRole.OWNER, owner.getId(), BookingState.ALL,
+                    now, page);
+            bookings.forEach(booking -> byCursor.add(booking.getId()));
+            BookingDto last = bookings.isEmpty() ? null : bookings.getLast();
+            page = bookings.size() < 2 ? null : new BookingPageRequest(0, 2, new BookingCursor(last.getStart(), last.getId()));
+        }
+
+        assertEquals(expected.get(BookingState.ALL), byCursor);
+        assertEquals(expected.get(BookingState.ALL).subList(1, 3),
+                ids(BookingRole.BOOKER, booker.getId(), BookingState.ALL, new BookingPageRequest(1, 2, null)));
+    }
+
+    @Test
+    void filtersBookerBookingsByItem() {
+        Long other = booking(item(), now.plusDays(10), now.plusDays(11), BookingStatus.WAITING);
+
+        List<Long> byItem = bookingRepository.findItemPage(BookingRole.BOOKER, booker.getId(), item.getId(),
+                BookingState.ALL, now, new BookingPageRequest(0, 2, null)).stream()
+                .map(BookingDto::getId)
+                .toList();
+
+        assertEquals(expected.get(BookingState.ALL).subList(0, 2), byItem);
+        assertEquals(other, ids(BookingRole.BOOKER, booker.getId(), BookingState.ALL, BookingPageRequest.unpaged())
+                .getFirst());
+    }
+
+    private List<Long> ids(BookingRole role, Long userId, BookingState state, BookingPageRequest page) {
+        return bookingRepository.findPage(role, userId, state, now, page).stream()
+                .map(BookingDto::getId)
+                .toList();
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setName("Name");
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+
+    private Item item() {
+        Item item = new Item();
+        item.setName("Name");
+        item.setDescription("Description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return itemRepository.save(item);
+    }
+
+    private Long booking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        return bookingRepository.save(booking).getId();
+    }
+}
@@ -7,12 +7,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingNewDto;
+import ru.practicum.shareit.booking.dto.BookingPageRequest;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.BookingConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -20,6 +27,8 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -67,15 +76,15 @@ public class BookingServiceTest {
 
         bookingNewDto = new BookingNewDto();
         bookingNewDto.setItemId(itemId);
-        bookingNewDto.setStart(LocalDateTime.now().plusHours(1));
-        bookingNewDto.setEnd(LocalDateTime.now().plusHours(2));
+        bookingNewDto.setStart(LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.MICROS));
+        bookingNewDto.setEnd(LocalDateTime.now().plusHours(2).truncatedTo(ChronoUnit.MICROS));
 
         bookingDto = BookingDto.builder()
                 .id(1L)
                 .start(bookingNewDto.getStart())
                 .end(bookingNewDto.getEnd())
-                .item(item)
-                .booker(user)
+                .item(BookingMapper.toItemView(item))
+                .booker(BookingMapper.toUserView(user))
                 .status(BookingStatus.WAITING)
                 .build();
     }
@@ -90,6 +99,122 @@ public class BookingServiceTest {
         assertEquals(userId, bookingDto.getBooker().getId());
     }
 
+    @Test
+    void createBookingsReportsEachEntry() {
+        BookingNewDto approvedDto = new BookingNewDto(itemId, bookingNewDto.getStart().plusDays(1),
+                bookingNewDto.getEnd().plusDays(1));
+        bookingService.updateBooking(userId, bookingService.createBooking(userId, approvedDto).getId(), true);
+
+        Item unavailable = new Item();
+        unavailable.setName("Unavailable");
+        unavailable.setDescription("Description");
+        unavailable.setAvailable(false);
+        unavailable.setOwner(item.getOwner());
+        itemRepository.save(unavailable);
+
+        List<BookingBulkResultDto> results = bookingService.createBookings(userId, List.of(
+                bookingNewDto,
+                new BookingNewDto(itemId + 1000, bookingNewDto.getStart(), bookingNewDto.getEnd()),
+                new BookingNewDto(unavailable.getId(), bookingNewDto.getStart(), bookingNewDto.getEnd()),
+                new BookingNewDto(itemId, approvedDto.getStart().plusMinutes(30), approvedDto.getEnd()),
+                new BookingNewDto(itemId, bookingNewDto.getStart(), bookingNewDto.getEnd())));
+
+        assertEquals(5, results.size());
+        assertEquals(bookingNewDto.getStart(), results.get(0).booking().getStart());
+        assertEquals(BookingStatus.WAITING, results.get(0).booking().getStatus());
+        assertNull(results.get(0).error());
+        assertEquals("Предмет с таким id не найден", results.get(1).error());
+        assertEquals("Предмет уже забронирован", results.get(2).error());
+        assertEquals("Предмет занят в указанные даты", results.get(3).error());
+        assertNull(results.get(3).booking());
+        assertEquals(4, results.get(4).index());
+        assertNotEquals(results.get(0).booking().getId(), results.get(4).booking().getId());
+        assertEquals(3, bookingRepository.count());
+    }
+
+    @Test
+    void decideBookingsReportsEachDecision() {
+        BookingDto first = bookingService.createBooking(userId, bookingNewDto);
+        BookingDto overlapping = bookingService.createBooking(userId, new BookingNewDto(itemId,
+                bookingNewDto.getStart().plusMinutes(30), bookingNewDto.getEnd().plusMinutes(30)));
+        BookingDto later = bookingService.createBooking(userId, new BookingNewDto(itemId,
+                bookingNewDto.getStart().plusDays(1), bookingNewDto.getEnd().plusDays(1)));
+        BookingDto rejected = bookingService.createBooking(userId, bookingNewDto);
+
+        List<BookingBulkResultDto> results = bookingService.decideBookings(userId, List.of(
+                new BookingDecisionDto(first.getId(), true),
+                new BookingDecisionDto(overlapping.getId(), true),
+                new BookingDecisionDto(later.getId(), true),
+                new BookingDecisionDto(rejected.getId(), false),
+                new BookingDecisionDto(first.getId(), false),
+                new BookingDecisionDto(first.getId() + 1000, true)));
+
+        assertEquals(6, results.size());
+        assertEquals(BookingStatus.APPROVED, results.get(0).booking().getStatus());
+        assertEquals("Предмет уже забронирован на эти даты", results.get(1).error());
+        assertEquals(BookingStatus.APPROVED, results.get(2).booking().getStatus());
+        assertEquals(BookingStatus.REJECTED, results.get(3).booking().getStatus());
+        assertEquals("Бронирование уже указано в пакете", results.get(4).error());
+        assertEquals("Бронирование с таким id не найдено", results.get(5).error());
+        assertEquals(BookingStatus.WAITING,
+                bookingService.findBookingByIdAndBookerIdOrOwnerId(userId, overlapping.getId()).getStatus());
+        assertEquals(BookingStatus.APPROVED,
+                bookingService.findBookingByIdAndBookerIdOrOwnerId(userId, later.getId()).getStatus());
+    }
+
+    @Test
+    void decideBookingsChecksOwnerAndStatus() {
+        BookingDto waiting = bookingService.createBooking(userId, bookingNewDto);
+        BookingDto decided = bookingService.createBooking(userId, bookingNewDto);
+        bookingService.updateBooking(userId, decided.getId(), false);
+
+        User user2 = new User();
+        user2.setName("Name2");
+        user2.setEmail("test2@mail.ru");
+        userRepository.save(user2);
+
+        List<BookingBulkResultDto> results = bookingService.decideBookings(user2.getId(),
+                List.of(new BookingDecisionDto(waiting.getId(), true)));
+        assertEquals("Пользователь не является владельцем предмета", results.getFirst().error());
+
+        results = bookingService.decideBookings(userId, List.of(new BookingDecisionDto(decided.getId(), true)));
+        assertEquals("Бронирование уже подтверждено", results.getFirst().error());
+        assertEquals(BookingStatus.REJECTED,
+                bookingService.findBookingByIdAndBookerIdOrOwnerId(userId, decided.getId()).getStatus());
+    }
+
+    @Test
+    void overlappingApprovalFailsWithoutUpdate() {
+        Booking approved = new Booking();
+        approved.setItem(item);
+        approved.setBooker(item.getOwner());
+        approved.setStart(bookingNewDto.getStart());
+        approved.setEnd(bookingNewDto.getEnd());
+        approved.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(approved);
+        Booking overlapping = new Booking();
+        overlapping.setItem(item);
+        overlapping.setBooker(item.getOwner());
+        overlapping.setStart(bookingNewDto.getStart().plusMinutes(30));
+        overlapping.setEnd(bookingNewDto.getEnd().plusMinutes(30));
+        overlapping.setStatus(BookingStatus.WAITING);
+        Long overlappingId = bookingRepository.saveAndFlush(overlapping).getId();
+        Long version = overlapping.getVersion();
+
+        User user2 = new User();
+        user2.setName("Name2");
+        user2.setEmail("test2@mail.ru");
+        userRepository.save(user2);
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> bookingService.updateBooking(user2.getId(), overlappingId, true));
+        assertEquals("Пользователь не является владельцем предмета", e.getMessage());
+
+        assertThrows(BookingConflictException.class, () -> bookingService.updateBooking(userId, overlappingId, true));
+        assertEquals(BookingStatus.WAITING,
+                bookingService.findBookingByIdAndBookerIdOrOwnerId(userId, overlappingId).getStatus());
+        assertEquals(version, bookingRepository.findById(overlappingId).orElseThrow().getVersion());
+    }
+
     @Test
     void findBookingById() {
         BookingDto bookingDto = bookingService.createBooking(userId, bookingNewDto);
@@ -115,6 +240,45 @@ public class BookingServiceTest {
         assertEquals(bookingDto.getBooker().getId(), bookingDtoList.getFirst().getBooker().getId());
     }
 
+    @Test
+    void findBookingsByStatePagesByCursorAndOffset() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 5; i++) {
+            BookingNewDto newDto = new BookingNewDto();
+            newDto.setItemId(itemId);
+            // Два бронирования с одинаковым началом: порядок между ними задаёт id.
+            newDto.setStart(start.plusHours(Math.min(i, 3)));
+            newDto.setEnd(start.plusHours(10));
+            bookingService.createBooking(userId, newDto);
+        }
+        List<Long> all = bookingService.findBookingsByState(userId, BookingState.ALL).stream()
+                .map(BookingDto::getId)
+                .toList();
+
+        List<Long> byCursor = new ArrayList<>();
+        BookingPageRequest page = new BookingPageRequest(0, 2, null);
+        while (page != null) {
+            List<BookingDto> bookings = bookingService.findBookingsByState(userId, BookingState.ALL, page);
+            bookings.forEach(booking -> byCursor.add(booking.getId()));
+            BookingCursor next = page.next(bookings);
+            // Клиент может по-прежнему присылать from вместе с курсором: смещение при этом не применяется.
+            page = next == null ? null : BookingPageRequest.of(2, 2, next.encode());
+        }
+        List<Long> byOffset = bookingService.findBookingsByState(userId, BookingState.ALL,
+                        new BookingPageRequest(2, 2, null)).stream()
+                .map(BookingDto::getId)
+                .toList();
+
+        assertEquals(5, all.size());
+        assertEquals(all, byCursor);
+        assertEquals(all.subList(2, 4), byOffset);
+    }
+
+    @Test
+    void findBookingsRejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> BookingPageRequest.of(0, 10, "not-a-cursor"));
+    }
+
     @Test
     void findBookingsByOwnerId() {
         BookingDto bookingDto = bookingService.createBooking(userId, bookingNewDto);
@@ -336,6 +500,16 @@ public class BookingServiceTest {
         assertEquals(BookingStatus.APPROVED, bookingDtoUpdated.getStatus());
     }
 
+    @Test
+    void secondDecisionOnSameBookingFails() {
+        BookingDto bookingDto = bookingService.createBooking(userId, bookingNewDto);
+        bookingService.updateBooking(userId, bookingDto.getId(), false);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> bookingService.updateBooking(userId, bookingDto.getId(), true));
+        assertEquals("Бронирование уже подтверждено", e.getMessage());
+    }
+
     @Test
     void approveBookingByWrongUserId() {
         User user2 = new User();
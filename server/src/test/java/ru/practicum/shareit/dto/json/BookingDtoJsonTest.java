@@ -7,6 +7,7 @@ import org.springframework.boot.test.json.JacksonTester;
 import org.springframework.boot.test.json.JsonContent;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -24,12 +25,12 @@ public class BookingDtoJsonTest {
     @Test
     public void testSerializeAndDeserialize() throws Exception {
         User user = new User(1L, "John Doe", "john.doe@example.com");
-        Item item = new Item(2L, "Laptop", "Gaming Laptop", true, user, null, new ArrayList<>());
+        Item item = new Item(2L, "Laptop", "Gaming Laptop", true, user, null, new ArrayList<>(), 0L);
         BookingDto bookingDto = BookingDto.builder()
                 .id(3L)
                 .itemId(2L)
-                .item(item)
-                .booker(user)
+                .item(BookingMapper.toItemView(item))
+                .booker(BookingMapper.toUserView(user))
                 .status(BookingStatus.APPROVED)
                 .start(LocalDateTime.of(2025, 3, 10, 12, 0))
                 .end(LocalDateTime.of(2025, 3, 15, 12, 0))
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.dto.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Проверяет Smile на самом большом ответе сервера — списке бронирований с вложенными вещью и пользователями:
+ * он разбирается в те же объекты, перекодируется в тот же JSON и занимает меньше места.
+ */
+@JsonTest
+public class BookingDtoSmileTest {
+    private static final int BOOKINGS = 1_000;
+    private static final TypeReference<List<BookingDto>> BOOKING_LIST = new TypeReference<>() {
+    };
+
+    @Autowired
+    private ObjectMapper jsonMapper;
+
+    @Autowired
+    private Jackson2ObjectMapperBuilder builder;
+
+    @Test
+    public void testSmileIsSmallerAndRoundTrips() throws Exception {
+        ObjectMapper smileMapper = builder.factory(new SmileFactory()).build();
+        List<BookingDto> bookings = bookings();
+
+        byte[] json = jsonMapper.writeValueAsBytes(bookings);
+        byte[] smile = smileMapper.writeValueAsBytes(bookings);
+
+        assertThat(smileMapper.readValue(smile, BOOKING_LIST)).isEqualTo(bookings);
+        assertThat(jsonMapper.readTree(json)).isEqualTo(jsonMapper.readTree(
+                jsonMapper.writeValueAsBytes(smileMapper.readTree(smile))));
+        assertThat(smile.length).isLessThan(json.length);
+    }
+
+    private static List<BookingDto> bookings() {
+        List<BookingDto> bookings = new ArrayList<>(BOOKINGS);
+        LocalDateTime start = LocalDateTime.of(2025, 3, 10, 12, 0);
+        for (long i = 1; i <= BOOKINGS; i++) {
+            User owner = new User(i % 50, "Owner " + i % 50, "owner" + i % 50 + "@example.com");
+            User booker = new User(1_000 + i, "Booker " + i, "booker" + i + "@example.com");
+            Item item = new Item(i % 200, "Item " + i % 200, "Description of item " + i % 200, true, owner,
+                    null, new ArrayList<>(), 0L);
+            bookings.add(BookingDto.builder()
+                    .id(i)
+                    .itemId(item.getId())
+                    .item(BookingMapper.toItemView(item))
+                    .booker(BookingMapper.toUserView(booker))
+                    .status(BookingStatus.APPROVED)
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i + 2))
+                    .build());
+        }
+        return bookings;
+    }
+}
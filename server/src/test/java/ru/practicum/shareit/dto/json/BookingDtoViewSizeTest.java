@@ -0,0 +1,93 @@
+package ru.practicum.shareit.dto.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнивает страницу бронирований в прежнем виде, с сущностями вещи и пользователя внутри, и в плоском
+ * {@link BookingDto}: ключи ответа те же, а сам ответ меньше.
+ */
+@JsonTest
+public class BookingDtoViewSizeTest {
+    private static final int BOOKINGS = 1_000;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Test
+    public void testViewKeepsFieldsAndIsSmaller() throws Exception {
+        List<LegacyBookingDto> legacy = new ArrayList<>(BOOKINGS);
+        List<BookingDto> views = new ArrayList<>(BOOKINGS);
+        LocalDateTime start = LocalDateTime.of(2025, 3, 10, 12, 0);
+        for (long i = 1; i <= BOOKINGS; i++) {
+            User owner = new User(i % 50, "Owner " + i % 50, "owner" + i % 50 + "@example.com");
+            User booker = new User(1_000 + i, "Booker " + i, "booker" + i + "@example.com");
+            ItemRequest request = null;
+            if (i % 4 == 0) {
+                request = new ItemRequest();
+                request.setId(i);
+                request.setDescription("Need item " + i % 200);
+                request.setRequester(booker);
+                request.setCreated(start);
+            }
+            Item item = new Item(i % 200, "Item " + i % 200, "Description of item " + i % 200, true, owner,
+                    request, new ArrayList<>(), 0L);
+            legacy.add(new LegacyBookingDto(i, item.getId(), item, booker, BookingStatus.APPROVED,
+                    start.plusDays(i), start.plusDays(i + 2)));
+            views.add(new BookingDto(i, item.getId(), BookingMapper.toItemView(item), BookingMapper.toUserView(booker),
+                    BookingStatus.APPROVED, start.plusDays(i), start.plusDays(i + 2)));
+        }
+
+        byte[] legacyJson = mapper.writeValueAsBytes(legacy);
+        byte[] viewJson = mapper.writeValueAsBytes(views);
+
+        assertThat(fieldNames(viewJson)).isEqualTo(fieldNames(legacyJson));
+        assertThat(itemFieldNames(viewJson, 3))
+                .containsExactly("id", "name", "description", "available", "owner", "request", "comments");
+        assertThat(itemFieldNames(legacyJson, 3)).containsAll(itemFieldNames(viewJson, 3));
+        assertThat(viewJson.length).isLessThan(legacyJson.length);
+    }
+
+    private List<String> fieldNames(byte[] json) throws Exception {
+        List<String> names = new ArrayList<>();
+        mapper.readTree(json).get(0).fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private List<String> itemFieldNames(byte[] json, int index) throws Exception {
+        List<String> names = new ArrayList<>();
+        mapper.readTree(json).get(index).get("item").fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    /**
+     * Прежняя форма ответа: вещь и бронирующий — сущности целиком.
+     */
+    @Data
+    @AllArgsConstructor
+    private static class LegacyBookingDto {
+        private Long id;
+        private Long itemId;
+        private Item item;
+        private User booker;
+        private BookingStatus status;
+        private LocalDateTime start;
+        private LocalDateTime end;
+    }
+}
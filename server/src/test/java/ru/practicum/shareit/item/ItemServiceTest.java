@@ -128,6 +128,7 @@ public class ItemServiceTest {
         assertEquals(itemDto.getName(), itemDtoById.getName());
         assertEquals(itemDto.getDescription(), itemDtoById.getDescription());
         assertEquals(itemDto.getAvailable(), itemDtoById.getAvailable());
+        assertEquals(userId, itemDtoById.getOwnerId());
     }
 
     @Test